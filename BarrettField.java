@@ -0,0 +1,94 @@
+import java.math.BigInteger;
+
+// GF(p) for word-sized primes up to 2^62, one long per element. The 124-bit product is formed
+// with Math.multiplyHigh and reduced with Barrett's method using mu = floor(2^2s / p), so the
+// hot loops contain no division. Stateless and safe to share between threads.
+public class BarrettField implements Field {
+    static final int MAX_BITS = 62;
+
+    final long p;
+    private final int s;
+    private final long mu;
+    private final BigInteger modulus;
+
+    BarrettField(long p) {
+        this.p = p;
+        this.s = 64 - Long.numberOfLeadingZeros(p);
+        if (p < 3 || s > MAX_BITS) throw new IllegalArgumentException("Prime out of range for BarrettField");
+        this.mu = BigInteger.ONE.shiftLeft(2 * s).divide(BigInteger.valueOf(p)).longValue();
+        this.modulus = BigInteger.valueOf(p);
+    }
+
+    @Override
+    public BigInteger modulus() {
+        return modulus;
+    }
+
+    @Override
+    public int limbs() {
+        return 1;
+    }
+
+    @Override
+    public Field fork() {
+        return this;
+    }
+
+    @Override
+    public void fromBigInteger(BigInteger value, long[] r, int ri) {
+        r[ri] = value.mod(modulus).longValue();
+    }
+
+    @Override
+    public BigInteger toBigInteger(long[] a, int ai) {
+        return BigInteger.valueOf(a[ai]);
+    }
+
+    @Override
+    public void fromLong(long value, long[] r, int ri) {
+        r[ri] = Math.floorMod(value, p);
+    }
+
+    @Override
+    public void add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long sum = a[ai] + b[bi];
+        r[ri] = sum >= p ? sum - p : sum;
+    }
+
+    @Override
+    public void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long d = a[ai] - b[bi];
+        r[ri] = d < 0 ? d + p : d;
+    }
+
+    @Override
+    public void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        r[ri] = mulMod(a[ai], b[bi]);
+    }
+
+    @Override
+    public void inv(long[] a, int ai, long[] r, int ri) {
+        long base = a[ai], res = 1, e = p - 2;
+        while (e > 0) {
+            if ((e & 1) != 0) res = mulMod(res, base);
+            base = mulMod(base, base);
+            e >>= 1;
+        }
+        r[ri] = res;
+    }
+
+    long mulMod(long a, long b) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+
+        // q = floor(floor(x / 2^(s-1)) * mu / 2^(s+1)) underestimates x / p by at most 2.
+        long x1 = (hi << (65 - s)) | (lo >>> (s - 1));
+        long qh = Math.multiplyHigh(x1, mu);
+        long ql = x1 * mu;
+        long q = (qh << (63 - s)) | (ql >>> (s + 1));
+
+        long r = lo - q * p;
+        while (Long.compareUnsigned(r, p) >= 0) r -= p;
+        return r;
+    }
+}
@@ -0,0 +1,304 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Batch reconstruction: reads a stream of share sets (one file holding many sets, e.g. JSON
+// Lines, or a directory of such files) and writes one JSON line per set. Parsing, base
+// conversion, reconstruction and writing run on their own threads connected by bounded
+// queues, so the stages overlap and memory stays proportional to the queue capacity.
+// Every stage is a single thread, which keeps results in input order.
+public class BatchPipeline {
+    static final int QUEUE_CAPACITY = 256;
+
+    static final class RawShare {
+        final long x;
+        final int base;
+        final char[] value;
+
+        RawShare(long x, int base, char[] value) {
+            this.x = x;
+            this.base = base;
+            this.value = value;
+        }
+    }
+
+    static final class RawSet {
+        final long index;
+        final String source;
+        final List<RawShare> shares = new ArrayList<>();
+        int k = -1;
+        String prime;
+        String error;
+
+        RawSet(long index, String source) {
+            this.index = index;
+            this.source = source;
+        }
+    }
+
+    static final class Job {
+        final RawSet raw;
+        final Field field;
+        final ShareSet shares;
+        final String error;
+
+        Job(RawSet raw, Field field, ShareSet shares, String error) {
+            this.raw = raw;
+            this.field = field;
+            this.shares = shares;
+            this.error = error;
+        }
+    }
+
+    private static final RawSet END_OF_SETS = new RawSet(-1, null);
+    private static final Job END_OF_JOBS = new Job(null, null, null, null);
+    private static final String END_OF_LINES = new String("");
+
+    private final List<String> flags;
+    private final BlockingQueue<RawSet> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<Job> converted = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<String> results = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final List<Thread> stages = new ArrayList<>();
+
+    private BatchPipeline(List<String> flags) {
+        this.flags = flags;
+    }
+
+    // Reconstructs every share set under input and writes the results to output (stdout if null).
+    static void run(Path input, String output, List<String> flags) throws Exception {
+        if (flags.contains("--gf256")) throw new IllegalArgumentException("Batch mode does not support --gf256");
+
+        List<Path> files;
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> list = Files.list(input)) {
+                files = list.filter(p -> p.toString().endsWith(".json") || p.toString().endsWith(".jsonl"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            files = List.of(input);
+        }
+
+        Writer out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+
+        BatchPipeline pipeline = new BatchPipeline(flags);
+        pipeline.start("parse", () -> pipeline.parse(files, files.size() > 1 || Files.isDirectory(input)));
+        pipeline.start("convert", pipeline::convert);
+        pipeline.start("reconstruct", pipeline::reconstruct);
+        pipeline.start("write", () -> pipeline.write(out));
+
+        for (Thread stage : pipeline.stages) stage.join();
+        if (output == null) out.flush();
+        else out.close();
+
+        if (flags.contains("--stats")) System.err.println(LagrangeCache.SHARED);
+
+        Throwable t = pipeline.failure.get();
+        if (t instanceof Exception) throw (Exception) t;
+        if (t != null) throw new IllegalStateException(t);
+    }
+
+    interface Stage {
+        void run() throws Exception;
+    }
+
+    private void start(String name, Stage body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                // Another stage failed and is shutting the pipeline down.
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t)) {
+                    for (Thread stage : stages) {
+                        if (stage != Thread.currentThread()) stage.interrupt();
+                    }
+                }
+            }
+        }, "batch-" + name);
+        stages.add(thread);
+        thread.start();
+    }
+
+    // Passes the end marker on, unless a stage has failed: the stage downstream may be gone and
+    // its queue full, and every stage is being interrupted anyway.
+    private <T> void end(BlockingQueue<T> queue, T marker) throws InterruptedException {
+        if (failure.get() == null) queue.put(marker);
+    }
+
+    private void parse(List<Path> files, boolean named) throws Exception {
+        long index = 0;
+        try {
+            for (Path file : files) {
+                String source = named ? file.getFileName().toString() : null;
+                try (ShareReader reader = new ShareReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                    for (RawSet set; (set = readSet(reader, index, source)) != null; index++) parsed.put(set);
+                }
+            }
+        } finally {
+            end(parsed, END_OF_SETS);
+        }
+    }
+
+    // The next share set from reader, or null at the end of the input. A set that does not parse
+    // comes back with its error, and reading resumes after it.
+    static RawSet readSet(ShareReader reader, long index, String source) throws IOException {
+        try {
+            return readEvents(reader, index, source);
+        } catch (ShareReader.MalformedException e) {
+            reader.skipMalformed();
+            RawSet set = new RawSet(index, source);
+            set.error = e.getMessage();
+            return set;
+        }
+    }
+
+    private static RawSet readEvents(ShareReader reader, long index, String source) throws IOException {
+        RawSet set = null;
+        for (ShareReader.Event event; (event = reader.next()) != ShareReader.Event.END; ) {
+            switch (event) {
+                case SET_START:
+                    set = new RawSet(index, source);
+                    break;
+                case KEYS:
+                    set.k = reader.k();
+                    set.prime = reader.prime();
+                    break;
+                case SHARE:
+                    set.shares.add(new RawShare(reader.x(), reader.base(), reader.valueChars()));
+                    break;
+                case SET_END:
+                    return set;
+                default:
+                    break;
+            }
+        }
+        return null;
+    }
+
+    private void convert() throws Exception {
+        Map<String, Field> fields = new HashMap<>();
+        try {
+            for (RawSet set; (set = parsed.take()) != END_OF_SETS; ) converted.put(convert(set, fields, flags));
+        } finally {
+            end(converted, END_OF_JOBS);
+        }
+    }
+
+    // Base conversion of a set's shares, with fields looked up in (and added to) fields by the
+    // set's "prime".
+    static Job convert(RawSet set, Map<String, Field> fields, List<String> flags) {
+        if (set.error != null) return new Job(set, null, null, set.error);
+        if (set.k < 0) return new Job(set, null, null, "Missing keys object");
+        String prime = set.prime;
+        Field field;
+        try {
+            field = fields.computeIfAbsent(prime == null ? "" : prime, key -> PolynomialSolver.selectField(flags, prime));
+        } catch (IllegalArgumentException e) {
+            return new Job(set, null, null, e.getMessage());
+        }
+
+        ShareSet shares = new ShareSet(field, set.shares.size());
+        try {
+            for (RawShare raw : set.shares) {
+                int i = shares.add();
+                field.fromLong(raw.x, shares.xs(), i);
+                PolynomialSolver.baseToInt(CharBuffer.wrap(raw.value), raw.base, field, shares.ys(), i);
+            }
+        } catch (IllegalArgumentException e) {
+            return new Job(set, field, shares, "Invalid secret: failed to parse or convert one of the keys");
+        }
+        return new Job(set, field, shares, null);
+    }
+
+    private void reconstruct() throws Exception {
+        // Fields are not thread-safe, so this stage works on its own instances.
+        Map<BigInteger, Field> fields = new HashMap<>();
+        try {
+            for (Job job; (job = converted.take()) != END_OF_JOBS; ) {
+                Field shared = job.field;
+                Field field = shared == null ? null : fields.computeIfAbsent(shared.modulus(), m -> shared.fork());
+                results.put(reconstruct(job, field, flags));
+            }
+        } finally {
+            end(results, END_OF_LINES);
+        }
+    }
+
+    // The result line of a converted set, reconstructed in field (an instance of job.field's
+    // modulus owned by the calling thread).
+    static String reconstruct(Job job, Field field, List<String> flags) {
+        if (job.error != null) return line(job.raw, null, null, job.error);
+        long[] secret = field.newElements(1);
+        List<Integer> badShares = new ArrayList<>();
+        String error;
+        try {
+            error = PolynomialSolver.recover(field, job.shares, job.raw.k, flags, secret, badShares);
+        } catch (RuntimeException e) {
+            // Bad input of any kind (duplicate x-coordinates, too many subsets to search) fails
+            // this set only.
+            error = String.valueOf(e.getMessage());
+        }
+        if (error != null) return line(job.raw, null, null, error);
+
+        List<BigInteger> corrupt = new ArrayList<>(badShares.size());
+        for (int i : badShares) corrupt.add(field.toBigInteger(job.shares.xs(), i));
+        return line(job.raw, field.toBigInteger(secret, 0), corrupt, null);
+    }
+
+    private void write(Writer out) throws Exception {
+        for (String line; (line = results.take()) != END_OF_LINES; ) {
+            out.write(line);
+            out.write('\n');
+        }
+    }
+
+    static String line(RawSet set, BigInteger secret, List<BigInteger> corrupt, String error) {
+        StringBuilder sb = new StringBuilder(64).append("{\"set\":").append(set.index);
+        if (set.source != null) sb.append(",\"source\":").append(quote(set.source));
+        if (error != null) {
+            sb.append(",\"error\":").append(quote(error));
+        } else {
+            sb.append(",\"secret\":\"").append(secret).append('"');
+            if (!corrupt.isEmpty()) {
+                sb.append(",\"corrupt\":[");
+                for (int i = 0; i < corrupt.size(); i++) {
+                    if (i > 0) sb.append(',');
+                    sb.append(corrupt.get(i));
+                }
+                sb.append(']');
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class BerlekampWelch {
+    static class Result {
+        final long[] coefficients;
+        final List<Integer> badShares;
+
+        Result(long[] coefficients, List<Integer> badShares) {
+            this.coefficients = coefficients;
+            this.badShares = badShares;
+        }
+    }
+
+    static int maxErrors(int n, int k) {
+        return n < k ? -1 : (n - k) / 2;
+    }
+
+    // Finds the unique polynomial P of degree < k that agrees with all but at most (n-k)/2
+    // of the points by solving Q(x_i) = y_i * E(x_i) for an error locator E of degree e.
+    // Returns null when no such polynomial exists. The secret is coefficient 0 of the result.
+    static Result decode(Field field, ShareSet shares, int k) {
+        int n = shares.size();
+        int e = maxErrors(n, k);
+        if (e < 0) return null;
+
+        // Unknowns: q_0..q_{e+k-1} followed by e_0..e_{e-1}; E is monic so e_e = 1.
+        int qLen = e + k;
+        int cols = qLen + e;
+        int width = cols + 1;
+        long[] m = field.newElements(n * width);
+        long[] pow = field.newElements(1);
+        long[] zero = field.newElements(1);
+        long[] xs = shares.xs();
+        long[] ys = shares.ys();
+        for (int i = 0; i < n; i++) {
+            int row = i * width;
+            field.fromLong(1, pow, 0);
+            for (int j = 0; j < qLen; j++) {
+                field.copy(pow, 0, m, row + j);
+                if (j < e) {
+                    field.mul(ys, i, pow, 0, m, row + qLen + j);
+                    field.sub(zero, 0, m, row + qLen + j, m, row + qLen + j);
+                }
+                if (j == e) field.mul(ys, i, pow, 0, m, row + cols);
+                field.mul(pow, 0, xs, i, pow, 0);
+            }
+        }
+
+        long[] solution = solve(field, m, n, cols);
+        if (solution == null) return null;
+
+        long[] q = field.newElements(qLen);
+        System.arraycopy(solution, 0, q, 0, qLen * field.limbs());
+        long[] locator = field.newElements(e + 1);
+        System.arraycopy(solution, qLen * field.limbs(), locator, 0, e * field.limbs());
+        field.fromLong(1, locator, e);
+
+        long[] coefficients = divideExact(field, q, qLen, locator, e + 1);
+        if (coefficients == null) return null;
+
+        List<Integer> badShares = new ArrayList<>();
+        long[] value = field.newElements(1);
+        for (int i = 0; i < n; i++) {
+            evaluate(field, coefficients, k, xs, i, value, 0);
+            if (!field.equal(value, 0, ys, i)) badShares.add(i);
+        }
+        if (badShares.size() > e) return null;
+
+        return new Result(coefficients, badShares);
+    }
+
+    // Horner evaluation of the first len coefficients at x.
+    static void evaluate(Field field, long[] coefficients, int len, long[] x, int xi, long[] r, int ri) {
+        field.fromLong(0, r, ri);
+        for (int i = len - 1; i >= 0; i--) {
+            field.mul(r, ri, x, xi, r, ri);
+            field.add(r, ri, coefficients, i, r, ri);
+        }
+    }
+
+    // Gauss-Jordan elimination over the field on a rows x (cols + 1) augmented matrix stored
+    // row-major. Free variables are set to zero; returns null if the system is inconsistent.
+    private static long[] solve(Field field, long[] m, int rows, int cols) {
+        int width = cols + 1;
+        int limbs = field.limbs();
+        int[] pivotCol = new int[rows];
+        long[] tmp = field.newElements(width);
+        long[] scratch = field.newElements(2);
+        int rank = 0;
+
+        for (int col = 0; col < cols && rank < rows; col++) {
+            int pivot = -1;
+            for (int r = rank; r < rows; r++) {
+                if (!field.isZero(m, r * width + col)) {
+                    pivot = r;
+                    break;
+                }
+            }
+            if (pivot < 0) continue;
+
+            if (pivot != rank) {
+                System.arraycopy(m, pivot * width * limbs, tmp, 0, width * limbs);
+                System.arraycopy(m, rank * width * limbs, m, pivot * width * limbs, width * limbs);
+                System.arraycopy(tmp, 0, m, rank * width * limbs, width * limbs);
+            }
+
+            int pivotRow = rank * width;
+            field.inv(m, pivotRow + col, scratch, 0);
+            for (int c = col; c <= cols; c++) field.mul(m, pivotRow + c, scratch, 0, m, pivotRow + c);
+
+            for (int r = 0; r < rows; r++) {
+                int row = r * width;
+                if (r == rank || field.isZero(m, row + col)) continue;
+                field.copy(m, row + col, scratch, 0);
+                for (int c = col; c <= cols; c++) {
+                    field.mul(scratch, 0, m, pivotRow + c, scratch, 1);
+                    field.sub(m, row + c, scratch, 1, m, row + c);
+                }
+            }
+            pivotCol[rank++] = col;
+        }
+
+        for (int r = rank; r < rows; r++) {
+            if (!field.isZero(m, r * width + cols)) return null;
+        }
+
+        long[] solution = field.newElements(cols);
+        for (int r = 0; r < rank; r++) field.copy(m, r * width + cols, solution, pivotCol[r]);
+        return solution;
+    }
+
+    // Divides by a monic polynomial; returns null if the remainder is non-zero.
+    private static long[] divideExact(Field field, long[] dividend, int len, long[] monicDivisor, int divisorLen) {
+        int dd = divisorLen - 1;
+        long[] rem = dividend.clone();
+        if (len <= dd) {
+            for (int i = 0; i < len; i++) if (!field.isZero(rem, i)) return null;
+            return field.newElements(0);
+        }
+
+        long[] quotient = field.newElements(len - dd);
+        long[] scratch = field.newElements(1);
+        for (int i = len - 1; i >= dd; i--) {
+            field.copy(rem, i, quotient, i - dd);
+            if (field.isZero(rem, i)) continue;
+            for (int j = 0; j <= dd; j++) {
+                field.mul(quotient, i - dd, monicDivisor, j, scratch, 0);
+                field.sub(rem, i - dd + j, scratch, 0, rem, i - dd + j);
+            }
+        }
+        for (int i = 0; i < dd; i++) {
+            if (!field.isZero(rem, i)) return null;
+        }
+        return quotient;
+    }
+}
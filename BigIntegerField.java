@@ -0,0 +1,64 @@
+import java.math.BigInteger;
+
+// Reference GF(p) built directly on BigInteger. Every operation converts through BigInteger and
+// allocates, so it is only meant for cross-checking the fast fields (--reference).
+public class BigIntegerField implements Field {
+    private final BigInteger modulus;
+    private final int limbs;
+
+    BigIntegerField(BigInteger modulus) {
+        this.modulus = modulus;
+        this.limbs = (modulus.bitLength() + 63) / 64;
+    }
+
+    @Override
+    public BigInteger modulus() {
+        return modulus;
+    }
+
+    @Override
+    public int limbs() {
+        return limbs;
+    }
+
+    @Override
+    public Field fork() {
+        return this;
+    }
+
+    @Override
+    public void fromBigInteger(BigInteger value, long[] r, int ri) {
+        Fields.toLimbs(value.mod(modulus), r, ri * limbs, limbs);
+    }
+
+    @Override
+    public BigInteger toBigInteger(long[] a, int ai) {
+        return Fields.fromLimbs(a, ai * limbs, limbs);
+    }
+
+    @Override
+    public void fromLong(long value, long[] r, int ri) {
+        fromBigInteger(BigInteger.valueOf(value), r, ri);
+    }
+
+    @Override
+    public void add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        fromBigInteger(toBigInteger(a, ai).add(toBigInteger(b, bi)), r, ri);
+    }
+
+    @Override
+    public void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        fromBigInteger(toBigInteger(a, ai).subtract(toBigInteger(b, bi)), r, ri);
+    }
+
+    @Override
+    public void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        fromBigInteger(toBigInteger(a, ai).multiply(toBigInteger(b, bi)), r, ri);
+    }
+
+    @Override
+    public void inv(long[] a, int ai, long[] r, int ri) {
+        BigInteger v = toBigInteger(a, ai);
+        fromBigInteger(v.signum() == 0 ? v : v.modInverse(modulus), r, ri);
+    }
+}
@@ -0,0 +1,93 @@
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+// Shamir sharing of arbitrary binary secrets over GF(256): every byte position is an
+// independent degree-(k-1) polynomial, and share x holds its evaluation at x for 1 <= x <= 255.
+// Reconstruction computes the k Lagrange coefficients at zero once per subset of x-values and
+// then applies them to whole share arrays, so the per-byte work is k table lookups and XORs.
+public class ByteShamir {
+    static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && GF256Vector.supported();
+
+    private ByteShamir() {
+    }
+
+    // Returns n shares of secret.length bytes; share i is the evaluation at x = i + 1.
+    static byte[][] split(byte[] secret, int n, int k, SecureRandom random) {
+        if (k < 1 || k > n || n > 255) throw new IllegalArgumentException("Need 1 <= k <= n <= 255");
+        int len = secret.length;
+        byte[][] coefficients = new byte[k - 1][len];
+        for (byte[] c : coefficients) random.nextBytes(c);
+
+        byte[][] shares = new byte[n][len];
+        for (int i = 0; i < n; i++) {
+            byte[] share = shares[i];
+            int row = (i + 1) << 8;
+            if (k == 1) {
+                System.arraycopy(secret, 0, share, 0, len);
+                continue;
+            }
+            System.arraycopy(coefficients[k - 2], 0, share, 0, len);
+            for (int t = k - 3; t >= -1; t--) {
+                byte[] c = t >= 0 ? coefficients[t] : secret;
+                for (int j = 0; j < len; j++) {
+                    share[j] = (byte) (GF256.MUL[row | (share[j] & 0xFF)] ^ c[j]);
+                }
+            }
+        }
+        return shares;
+    }
+
+    // Lagrange basis values l_i(0) = prod_{j != i} x_j / (x_j - x_i); subtraction is XOR.
+    static byte[] lagrangeAtZero(int[] xs) {
+        return lagrangeAt(xs, 0);
+    }
+
+    // Lagrange basis values l_i(x) = prod_{j != i} (x - x_j) / (x_i - x_j), for checking a further
+    // share at x against the polynomials through xs.
+    static byte[] lagrangeAt(int[] xs, int x) {
+        if (x < 0 || x > 255) throw new IllegalArgumentException("x-coordinate out of range: " + x);
+        int k = xs.length;
+        byte[] coefficients = new byte[k];
+        for (int i = 0; i < k; i++) {
+            if (xs[i] < 1 || xs[i] > 255) throw new IllegalArgumentException("x-coordinate out of range: " + xs[i]);
+            int num = 1, den = 1;
+            for (int j = 0; j < k; j++) {
+                if (i == j) continue;
+                if (xs[i] == xs[j]) throw new IllegalArgumentException("Duplicate x-coordinate in shares");
+                num = GF256.mul(num, x ^ xs[j]);
+                den = GF256.mul(den, xs[j] ^ xs[i]);
+            }
+            coefficients[i] = (byte) GF256.mul(num, GF256.inv(den));
+        }
+        return coefficients;
+    }
+
+    // out = sum_i coefficients[i] * shares[i], byte-wise. All arrays must have out.length bytes.
+    // Uses the Vector API kernel when jdk.incubator.vector is available.
+    static void combine(byte[] coefficients, byte[][] shares, byte[] out) {
+        if (VECTORIZED) {
+            GF256Vector.combine(coefficients, shares, out);
+        } else {
+            combineScalar(coefficients, shares, out);
+        }
+    }
+
+    static void combineScalar(byte[] coefficients, byte[][] shares, byte[] out) {
+        int len = out.length;
+        Arrays.fill(out, (byte) 0);
+        for (int i = 0; i < coefficients.length; i++) {
+            int row = (coefficients[i] & 0xFF) << 8;
+            byte[] share = shares[i];
+            for (int j = 0; j < len; j++) {
+                out[j] ^= GF256.MUL[row | (share[j] & 0xFF)];
+            }
+        }
+    }
+
+    static byte[] reconstruct(int[] xs, byte[][] shares) {
+        byte[] out = new byte[shares[0].length];
+        combine(lagrangeAtZero(xs), shares, out);
+        return out;
+    }
+}
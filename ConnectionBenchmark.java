@@ -0,0 +1,147 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+// Many slow clients against POST /reconstruct: every connection sends its headers and half of
+// its share set, then stalls for the hold period while a probe client sends complete requests
+// one after another and records their latency. At the end the stalled clients send the rest
+// and the time until every one of them has its answer is the drain time. With request threads
+// per connection and a separate compute pool the probes stay fast; with the handlers on a
+// pool of one thread per core ("fixed", the server before virtual threads) the stalled clients
+// hold every handler and the probes time out. Without a URL the server runs in this JVM, so
+// both ends' sockets count against the file limit: 10K connections there need about 20K
+// descriptors, or run the server as its own process and pass its URL.
+//
+//   java ConnectionBenchmark [connections] [hold seconds] [virtual|fixed | url]
+public class ConnectionBenchmark {
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int hold = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String mode = args.length > 2 ? args[2] : "virtual";
+
+        ReconstructionServer server = null;
+        URI uri;
+        if (mode.startsWith("http")) {
+            uri = URI.create(mode);
+        } else {
+            int cores = Runtime.getRuntime().availableProcessors();
+            server = mode.equals("fixed")
+                    ? new ReconstructionServer(0, cores, List.of(), Executors.newFixedThreadPool(cores))
+                    : new ReconstructionServer(0, cores, List.of());
+            server.start();
+            uri = URI.create("http://127.0.0.1:" + server.port() + "/reconstruct");
+        }
+
+        byte[] body = LoadTest.payload().getBytes(StandardCharsets.UTF_8);
+        byte[] head = ("POST " + uri.getPath() + " HTTP/1.1\r\nHost: " + uri.getHost() + "\r\nConnection: close\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        int half = body.length / 2;
+
+        Selector selector = Selector.open();
+        List<SocketChannel> slow = new ArrayList<>(connections);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress(uri.getHost(), uri.getPort()));
+                writeFully(channel, ByteBuffer.wrap(head), ByteBuffer.wrap(body, 0, half));
+                slow.add(channel);
+            }
+            System.out.printf("%d connections stalled mid-body after %.1f s (%s)%n",
+                    connections, (System.nanoTime() - start) / 1e9, server == null ? uri : mode);
+
+            long[] latencies = probe(uri, body, hold);
+            int timeouts = 0;
+            for (long latency : latencies) if (latency < 0) timeouts++;
+            long[] answered = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+            System.out.printf("probe: %d requests, %d timed out", latencies.length, timeouts);
+            if (answered.length > 0) {
+                System.out.printf(", p50 %.2f ms, p99 %.2f ms, max %.2f ms", LoadTest.percentile(answered, 0.50),
+                        LoadTest.percentile(answered, 0.99), answered[answered.length - 1] / 1e6);
+            }
+            System.out.println();
+
+            long release = System.nanoTime();
+            int ok = drain(selector, slow, body, half);
+            System.out.printf("drain: %d/%d answered 200 in %.1f s%n", ok, connections, (System.nanoTime() - release) / 1e9);
+        } finally {
+            for (SocketChannel channel : slow) channel.close();
+            selector.close();
+            if (server != null) server.stop();
+        }
+    }
+
+    // Sequential complete requests for the hold period; a timed-out request is recorded as -1.
+    static long[] probe(URI uri, byte[] body, int seconds) {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(2))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+        List<Long> latencies = new ArrayList<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                latencies.add(response.statusCode() == 200 ? System.nanoTime() - start : -1);
+            } catch (IOException | InterruptedException e) {
+                latencies.add(-1L);
+            }
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Sends the rest of every body and reads each response to end of stream; returns how many
+    // came back 200.
+    static int drain(Selector selector, List<SocketChannel> slow, byte[] body, int half) throws IOException {
+        for (SocketChannel channel : slow) {
+            writeFully(channel, ByteBuffer.wrap(body, half, body.length - half));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new StringBuilder());
+        }
+        int open = slow.size();
+        int ok = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (open > 0) {
+            selector.select();
+            for (SelectionKey key : selector.selectedKeys()) {
+                SocketChannel channel = (SocketChannel) key.channel();
+                StringBuilder response = (StringBuilder) key.attachment();
+                buffer.clear();
+                int n;
+                try {
+                    n = channel.read(buffer);
+                } catch (IOException e) {
+                    n = -1;
+                }
+                if (n > 0) {
+                    if (response.length() < 16) response.append(new String(buffer.array(), 0, n, StandardCharsets.US_ASCII));
+                } else if (n < 0) {
+                    if (response.toString().startsWith("HTTP/1.1 200")) ok++;
+                    key.cancel();
+                    channel.close();
+                    open--;
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+        return ok;
+    }
+
+    static void writeFully(SocketChannel channel, ByteBuffer... buffers) throws IOException {
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+}
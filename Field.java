@@ -0,0 +1,70 @@
+import java.math.BigInteger;
+
+// Arithmetic in GF(p) on elements stored in primitive long[] slots. Every element occupies
+// limbs() consecutive longs, and all indices below are element indices, so element i of an
+// array lives at [i * limbs(), (i + 1) * limbs()). The result slot may alias an operand.
+//
+// Implementations may keep scratch state and are then not thread-safe; call fork() to get an
+// instance for another thread.
+public interface Field {
+    BigInteger modulus();
+
+    int limbs();
+
+    Field fork();
+
+    void fromBigInteger(BigInteger value, long[] r, int ri);
+
+    BigInteger toBigInteger(long[] a, int ai);
+
+    void fromLong(long value, long[] r, int ri);
+
+    void add(long[] a, int ai, long[] b, int bi, long[] r, int ri);
+
+    void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri);
+
+    void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri);
+
+    void inv(long[] a, int ai, long[] r, int ri);
+
+    default long[] newElements(int count) {
+        return new long[count * limbs()];
+    }
+
+    default void copy(long[] a, int ai, long[] r, int ri) {
+        int limbs = limbs();
+        System.arraycopy(a, ai * limbs, r, ri * limbs, limbs);
+    }
+
+    default boolean isZero(long[] a, int ai) {
+        int limbs = limbs();
+        for (int i = ai * limbs, end = i + limbs; i < end; i++) {
+            if (a[i] != 0) return false;
+        }
+        return true;
+    }
+
+    default boolean equal(long[] a, int ai, long[] b, int bi) {
+        int limbs = limbs();
+        for (int i = 0; i < limbs; i++) {
+            if (a[ai * limbs + i] != b[bi * limbs + i]) return false;
+        }
+        return true;
+    }
+
+    // Replaces a[from..from+len) with its inverses using one inv() and 3(len-1) multiplications
+    // (Montgomery's trick). prefix must hold at least len + 1 elements; inputs must be non-zero.
+    default void batchInverse(long[] a, int from, int len, long[] prefix) {
+        if (len == 0) return;
+        copy(a, from, prefix, 0);
+        for (int i = 1; i < len; i++) mul(prefix, i - 1, a, from + i, prefix, i);
+
+        inv(prefix, len - 1, prefix, len);
+        for (int i = len - 1; i > 0; i--) {
+            mul(prefix, len, prefix, i - 1, prefix, i - 1);
+            mul(prefix, len, a, from + i, prefix, len);
+            copy(prefix, i - 1, a, from + i);
+        }
+        copy(prefix, len, a, from);
+    }
+}
@@ -0,0 +1,109 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+// Field multiplication throughput. Word-sized primes compare the division-based fields with
+// Barrett and the 2^61 - 1 fold; multi-word primes compare BigInteger.multiply().mod() with
+// LimbField and the Montgomery backend, plus k=32 inversions done one by one versus batched.
+// Small primes also time inversion by exponentiation against WordField's inverse table.
+// A plain main rather than JMH because the sources live in the default package; each case
+// is warmed up before its timed rounds and reports the best round.
+//
+//   java FieldBenchmark [operations per round]
+public class FieldBenchmark {
+    static final int WARMUP_ROUNDS = 5;
+    static final int ROUNDS = 5;
+    static final int BATCH = 32;
+
+    static volatile Object sink;
+
+    public static void main(String[] args) {
+        int ops = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        wordSized(ops);
+
+        BigInteger[] primes = {Fields.P128, Fields.P256, Fields.P521};
+        for (BigInteger p : primes) {
+            System.out.println("p = " + p.bitLength() + " bits");
+            Random random = new Random(p.bitLength());
+            BigInteger a = new BigInteger(p.bitLength() - 1, random);
+            BigInteger b = new BigInteger(p.bitLength() - 1, random);
+
+            report("BigInteger.mod", ops, () -> {
+                BigInteger x = a;
+                for (int i = 0; i < ops; i++) x = x.multiply(b).mod(p);
+                sink = x;
+            });
+            report("LimbField (Algorithm D)", ops, () -> mulChain(new LimbField(p), a, b, ops));
+            report("MontgomeryField", ops, () -> mulChain(new MontgomeryField(p), a, b, ops));
+
+            int invOps = Math.max(1, ops / 1000);
+            Field field = new MontgomeryField(p);
+            long[] values = field.newElements(BATCH);
+            long[] prefix = field.newElements(BATCH + 1);
+            for (int i = 0; i < BATCH; i++) field.fromBigInteger(new BigInteger(p.bitLength() - 1, random).add(BigInteger.ONE), values, i);
+
+            report("inv x" + BATCH + " one by one", invOps, () -> {
+                for (int n = 0; n < invOps; n++) {
+                    for (int i = 0; i < BATCH; i++) field.inv(values, i, values, i);
+                }
+                sink = values;
+            });
+            report("inv x" + BATCH + " batchInverse", invOps, () -> {
+                for (int n = 0; n < invOps; n++) field.batchInverse(values, 0, BATCH, prefix);
+                sink = values;
+            });
+            System.out.println();
+        }
+    }
+
+    static void wordSized(int ops) {
+        BigInteger p31 = BigInteger.valueOf(Integer.MAX_VALUE);
+        BigInteger p61 = BigInteger.valueOf(Mersenne61Field.P);
+        BigInteger p62 = BigInteger.ONE.shiftLeft(62).subtract(BigInteger.valueOf(57));
+        BigInteger a = BigInteger.valueOf(0x1234_5678_9ABCL), b = BigInteger.valueOf(0x0FED_CBA9_8765L);
+
+        System.out.println("p = 2^31 - 1");
+        report("WordField (%)", ops, () -> mulChain(new WordField(p31.longValue()), a, b, ops));
+        System.out.println("p = 2^62 - 57");
+        report("LimbField (Algorithm D)", ops, () -> mulChain(new LimbField(p62), a, b, ops));
+        report("MontgomeryField", ops, () -> mulChain(new MontgomeryField(p62), a, b, ops));
+        report("BarrettField", ops, () -> mulChain(new BarrettField(p62.longValue()), a, b, ops));
+        System.out.println("p = 2^61 - 1");
+        report("BarrettField", ops, () -> mulChain(new BarrettField(p61.longValue()), a, b, ops));
+        report("Mersenne61Field", ops, () -> mulChain(new Mersenne61Field(), a, b, ops));
+        System.out.println("p = " + PolynomialSolver.PRIME);
+        WordField small = new WordField(PolynomialSolver.PRIME);
+        report("inv by exponentiation", ops, () -> {
+            long x = 1234;
+            for (int i = 0; i < ops; i++) x = small.modInverse(x) + 1;
+            sink = x;
+        });
+        report("inv by table", ops, () -> {
+            long[] x = {1234};
+            for (int i = 0; i < ops; i++) {
+                small.inv(x, 0, x, 0);
+                x[0] = x[0] + 1 == PolynomialSolver.PRIME ? 1 : x[0] + 1;
+            }
+            sink = x;
+        });
+        System.out.println();
+    }
+
+    static void mulChain(Field field, BigInteger a, BigInteger b, int ops) {
+        long[] x = field.newElements(2);
+        field.fromBigInteger(a, x, 0);
+        field.fromBigInteger(b, x, 1);
+        for (int i = 0; i < ops; i++) field.mul(x, 0, x, 1, x, 0);
+        sink = x;
+    }
+
+    static void report(String name, int ops, Runnable body) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) body.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("  %-28s %10.1f ns/op%n", name, (double) best / ops);
+    }
+}
@@ -0,0 +1,68 @@
+import java.math.BigInteger;
+import java.util.Locale;
+
+public class Fields {
+    static final BigInteger P128 = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.valueOf(159));
+    static final BigInteger P256 = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.valueOf(189));
+    static final BigInteger P521 = BigInteger.ONE.shiftLeft(521).subtract(BigInteger.ONE);
+
+    private Fields() {
+    }
+
+    // Accepts a decimal prime or one of the presets m61 (2^61 - 1), p128, p256, p521.
+    static Field parse(String spec) {
+        switch (spec.toLowerCase(Locale.ROOT)) {
+            case "m61": return forPrime(BigInteger.valueOf(Mersenne61Field.P));
+            case "p128": return forPrime(P128);
+            case "p256": return forPrime(P256);
+            case "p521": return forPrime(P521);
+            default:
+                try {
+                    return forPrime(new BigInteger(spec));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unknown prime: " + spec);
+                }
+        }
+    }
+
+    static Field forPrime(BigInteger p) {
+        requirePrime(p);
+        if (p.bitLength() <= WordField.MAX_BITS) return new WordField(p.longValue());
+        if (p.equals(BigInteger.valueOf(Mersenne61Field.P))) return new Mersenne61Field();
+        if (p.bitLength() <= BarrettField.MAX_BITS) return new BarrettField(p.longValue());
+        return new MontgomeryField(p);
+    }
+
+    static Field reference(BigInteger p) {
+        requirePrime(p);
+        return new BigIntegerField(p);
+    }
+
+    private static void requirePrime(BigInteger p) {
+        if (p.signum() <= 0 || !p.isProbablePrime(64)) throw new IllegalArgumentException("Field modulus is not prime: " + p);
+    }
+
+    static long[] toLimbs(BigInteger value, int limbs) {
+        long[] r = new long[limbs];
+        toLimbs(value, r, 0, limbs);
+        return r;
+    }
+
+    // value must be non-negative and fit in the given number of limbs.
+    static void toLimbs(BigInteger value, long[] r, int off, int limbs) {
+        for (int i = 0; i < limbs; i++) {
+            r[off + i] = value.shiftRight(64 * i).longValue();
+        }
+    }
+
+    static BigInteger fromLimbs(long[] a, int off, int limbs) {
+        byte[] bytes = new byte[limbs * 8 + 1];
+        for (int i = 0; i < limbs; i++) {
+            long limb = a[off + i];
+            for (int b = 0; b < 8; b++) {
+                bytes[bytes.length - 1 - (i * 8 + b)] = (byte) (limb >>> (8 * b));
+            }
+        }
+        return new BigInteger(bytes);
+    }
+}
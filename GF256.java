@@ -0,0 +1,37 @@
+// Arithmetic in GF(2^8) with the AES polynomial x^8 + x^4 + x^3 + x + 1. Addition is XOR;
+// multiplication uses a full 64 KiB product table indexed by (a << 8) | b, so a row
+// MUL[c << 8 ..] is the "multiply by c" lookup used by the byte-wise kernels.
+public class GF256 {
+    static final int POLY = 0x11B;
+    static final byte[] MUL = new byte[256 * 256];
+    static final int[] EXP = new int[510];
+    static final int[] LOG = new int[256];
+
+    static {
+        int v = 1;
+        for (int i = 0; i < 255; i++) {
+            EXP[i] = v;
+            EXP[i + 255] = v;
+            LOG[v] = i;
+            v ^= v << 1;
+            if ((v & 0x100) != 0) v ^= POLY;
+        }
+        for (int a = 1; a < 256; a++) {
+            for (int b = 1; b < 256; b++) {
+                MUL[(a << 8) | b] = (byte) EXP[LOG[a] + LOG[b]];
+            }
+        }
+    }
+
+    private GF256() {
+    }
+
+    static int mul(int a, int b) {
+        return MUL[(a << 8) | b] & 0xFF;
+    }
+
+    static int inv(int a) {
+        if (a == 0) throw new ArithmeticException("Zero has no inverse in GF(256)");
+        return EXP[255 - LOG[a]];
+    }
+}
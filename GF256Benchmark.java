@@ -0,0 +1,85 @@
+import java.security.SecureRandom;
+
+// Byte-wise GF(256) split and reconstruct throughput in MB/s of secret, for blob sizes from a
+// 32-byte key up to 1 MiB. Reconstruction includes computing the Lagrange coefficients.
+// The kernel section compares combine() implementations in GB/s of output: a per-byte loop
+// shaped like a Lagrange dot product, the table-row scalar kernel, and the Vector API kernel.
+//
+//   java --add-modules jdk.incubator.vector GF256Benchmark [k] [n]
+public class GF256Benchmark {
+    static final int[] SIZES = {32, 256, 4096, 1 << 20};
+    static final long TARGET_BYTES = 16L << 20;
+    static final int ROUNDS = 3;
+
+    static volatile Object sink;
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 2 * k;
+        SecureRandom random = new SecureRandom();
+        System.out.printf("k = %d, n = %d%n", k, n);
+
+        for (int size : SIZES) {
+            byte[] secret = new byte[size];
+            random.nextBytes(secret);
+            int reps = (int) Math.max(1, TARGET_BYTES / size);
+
+            int[] xs = new int[k];
+            for (int i = 0; i < k; i++) xs[i] = i + 1;
+            byte[][] shares = ByteShamir.split(secret, n, k, random);
+            byte[][] subset = new byte[k][];
+            System.arraycopy(shares, 0, subset, 0, k);
+
+            double split = measure(size, reps / 32 + 1, () -> sink = ByteShamir.split(secret, n, k, random));
+            double combine = measure(size, reps, () -> sink = ByteShamir.reconstruct(xs, subset));
+            System.out.printf("  %8d B   split %9.1f MB/s   reconstruct %9.1f MB/s%n", size, split, combine);
+        }
+
+        kernels(k, random);
+    }
+
+    static void kernels(int k, SecureRandom random) {
+        int size = 1 << 20;
+        byte[] coefficients = new byte[k];
+        byte[][] shares = new byte[k][size];
+        byte[] out = new byte[size];
+        random.nextBytes(coefficients);
+        for (byte[] share : shares) random.nextBytes(share);
+        int reps = (int) Math.max(1, TARGET_BYTES / size);
+
+        System.out.printf("combine kernels, k = %d, %d KiB%n", k, size >> 10);
+        double perByte = measure(size, reps, () -> combinePerByte(coefficients, shares, out));
+        double scalar = measure(size, reps, () -> ByteShamir.combineScalar(coefficients, shares, out));
+        System.out.printf("  per-byte Lagrange loop %7.2f GB/s%n", perByte / 1024);
+        System.out.printf("  scalar table rows      %7.2f GB/s%n", scalar / 1024);
+        if (ByteShamir.VECTORIZED) {
+            double vector = measure(size, reps, () -> GF256Vector.combine(coefficients, shares, out));
+            System.out.printf("  Vector API (%d lanes)  %7.2f GB/s%n", GF256Vector.SPECIES.length(), vector / 1024);
+        } else {
+            System.out.println("  Vector API             unavailable (run with --add-modules jdk.incubator.vector)");
+        }
+        sink = out;
+    }
+
+    // The Lagrange dot-product loop shape: for every output position, sum the k weighted terms.
+    static void combinePerByte(byte[] coefficients, byte[][] shares, byte[] out) {
+        for (int j = 0; j < out.length; j++) {
+            int acc = 0;
+            for (int i = 0; i < coefficients.length; i++) {
+                acc ^= GF256.mul(coefficients[i] & 0xFF, shares[i][j] & 0xFF);
+            }
+            out[j] = (byte) acc;
+        }
+    }
+
+    static double measure(int size, int reps, Runnable body) {
+        for (int i = 0; i < reps; i++) body.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) body.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) size * reps / best * 1e9 / (1 << 20);
+    }
+}
@@ -0,0 +1,55 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API kernel for ByteShamir.combine. A GF(256) product c * b splits into two 16-entry
+// lookups on the nibbles of b, c * (b & 15) ^ c * (b >>> 4 << 4), which map onto lane-wise
+// table selects (pshufb/vpermb). Needs --add-modules jdk.incubator.vector at compile and run
+// time; ByteShamir only calls in here when the module is present and supported() holds.
+public class GF256Vector {
+    static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private GF256Vector() {
+    }
+
+    static boolean supported() {
+        return SPECIES.length() >= 16;
+    }
+
+    static void combine(byte[] coefficients, byte[][] shares, byte[] out) {
+        int k = coefficients.length;
+        int len = out.length;
+        int vl = SPECIES.length();
+
+        // Per-coefficient nibble tables, padded to a full vector.
+        byte[] lo = new byte[k * vl];
+        byte[] hi = new byte[k * vl];
+        for (int i = 0; i < k; i++) {
+            int row = (coefficients[i] & 0xFF) << 8;
+            for (int t = 0; t < 16; t++) {
+                lo[i * vl + t] = GF256.MUL[row | t];
+                hi[i * vl + t] = GF256.MUL[row | (t << 4)];
+            }
+        }
+
+        int j = 0;
+        for (int bound = SPECIES.loopBound(len); j < bound; j += vl) {
+            ByteVector acc = ByteVector.zero(SPECIES);
+            for (int i = 0; i < k; i++) {
+                ByteVector v = ByteVector.fromArray(SPECIES, shares[i], j);
+                ByteVector l = v.and((byte) 0x0F).selectFrom(ByteVector.fromArray(SPECIES, lo, i * vl));
+                ByteVector h = v.lanewise(VectorOperators.LSHR, 4).selectFrom(ByteVector.fromArray(SPECIES, hi, i * vl));
+                acc = acc.lanewise(VectorOperators.XOR, l).lanewise(VectorOperators.XOR, h);
+            }
+            acc.intoArray(out, j);
+        }
+
+        for (; j < len; j++) {
+            int acc = 0;
+            for (int i = 0; i < k; i++) {
+                acc ^= GF256.MUL[((coefficients[i] & 0xFF) << 8) | (shares[i][j] & 0xFF)];
+            }
+            out[j] = (byte) acc;
+        }
+    }
+}
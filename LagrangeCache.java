@@ -0,0 +1,131 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of the barycentric weights w_i = 1 / prod_{j != i} (x_i - x_j), keyed by the
+// field and the sorted set of x-coordinates. Deployments reuse the same custodian x-values across
+// many secrets; with their weights cached, an interpolator through k shares costs O(k) to load,
+// and then gives f(0) and checks every further share in O(k) each. Safe for concurrent use. The
+// shared instance holds shamir.lagrangeCacheSize entries (system property, default 1024).
+public class LagrangeCache {
+    static final LagrangeCache SHARED = new LagrangeCache(Integer.getInteger("shamir.lagrangeCacheSize", 1024));
+
+    private final int capacity;
+    private final Map<Key, long[]> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Field elements are compared by representation: any fixed order works for a key, and the
+    // implementation class is part of it because representations differ (Montgomery form).
+    private static final class Key {
+        final Class<?> type;
+        final BigInteger modulus;
+        final long[] xs;
+        final int hash;
+
+        Key(Field field, long[] xs) {
+            type = field.getClass();
+            modulus = field.modulus();
+            this.xs = xs;
+            hash = 31 * (31 * type.hashCode() + modulus.hashCode()) + Arrays.hashCode(xs);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash && type == other.type && modulus.equals(other.modulus)
+                    && Arrays.equals(xs, other.xs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    LagrangeCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Cache capacity must be positive");
+        this.capacity = capacity;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, long[]> eldest) {
+                if (size() <= LagrangeCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    // An interpolator through the first k shares, loaded in x order with cached weights.
+    LagrangeInterpolator interpolator(Field field, ShareSet shares, int k) {
+        int limbs = field.limbs();
+        long[] x = shares.xs();
+
+        // Insertion sort of the share indices by x; linear when the shares arrive in x order.
+        int[] order = new int[k];
+        for (int i = 0; i < k; i++) {
+            int j = i;
+            while (j > 0 && compare(x, order[j - 1], x, i, limbs) > 0) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        long[] xs = new long[k * limbs];
+        for (int i = 0; i < k; i++) System.arraycopy(x, order[i] * limbs, xs, i * limbs, limbs);
+        Key key = new Key(field, xs);
+        LagrangeInterpolator interpolator = new LagrangeInterpolator(field, k);
+        long[] weights;
+        synchronized (this) {
+            weights = entries.get(key);
+            if (weights != null) hits++;
+            else misses++;
+        }
+        if (weights != null) {
+            interpolator.reset(shares, order, weights);
+            return interpolator;
+        }
+
+        interpolator.reset(shares, order);
+        weights = interpolator.weights();
+        synchronized (this) {
+            entries.put(key, weights);
+        }
+        return interpolator;
+    }
+
+    // Unsigned comparison of elements ai of a and bi of b, most significant limb first.
+    private static int compare(long[] a, int ai, long[] b, int bi, int limbs) {
+        for (int i = limbs - 1; i >= 0; i--) {
+            int c = Long.compareUnsigned(a[ai * limbs + i], b[bi * limbs + i]);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Lagrange cache: " + hits + " hits, " + misses + " misses, " + evictions + " evictions, "
+                + entries.size() + "/" + capacity + " entries";
+    }
+}
@@ -0,0 +1,137 @@
+// Barycentric Lagrange interpolation through a fixed set of shares. The weights
+// w_i = 1 / prod_{j != i} (x_i - x_j) are computed once, after which the polynomial can be
+// evaluated at any x in 4k multiplications and no inversion:
+//   f(x) = sum_i w_i * y_i * prod_{j != i} (x - x_j).
+// Evaluation reuses scratch buffers, so an instance must not be shared between threads.
+//
+// The weights cost O(k^2) directly. From FAST_THRESHOLD shares on they come from a subproduct
+// tree instead: w_i = 1 / M'(x_i) with M = prod_i (x - x_i), one multipoint evaluation.
+// The threshold is the system property shamir.fastInterpolationThreshold.
+public class LagrangeInterpolator {
+    static final int FAST_THRESHOLD = Integer.getInteger("shamir.fastInterpolationThreshold", 2048);
+
+    private final Field field;
+    private final int k;
+    private final long[] xs;
+    private final long[] ys;
+    private final long[] weights;
+    private final long[] weightedYs;
+    private final long[] scratch;
+    private final long[] prefix;
+    private final long[] acc;
+    private MultipointEvaluator tree;
+
+    LagrangeInterpolator(Field field, ShareSet shares) {
+        this(field, shares, null);
+    }
+
+    // Interpolates through the shares at the given indices, or through all of them if null.
+    LagrangeInterpolator(Field field, ShareSet shares, int[] indices) {
+        this(field, indices == null ? shares.size() : indices.length);
+        reset(shares, indices);
+    }
+
+    // An interpolator for k shares with no points loaded yet; call reset() before use.
+    LagrangeInterpolator(Field field, int k) {
+        this.field = field;
+        this.k = k;
+        xs = field.newElements(k);
+        ys = field.newElements(k);
+        weights = field.newElements(k);
+        weightedYs = field.newElements(k);
+        scratch = field.newElements(k);
+        prefix = field.newElements(k + 1);
+        acc = field.newElements(3);
+    }
+
+    // Loads the k shares at the given indices (all of them if null) and recomputes the weights
+    // in the existing buffers, so a search can move through subsets without allocating.
+    void reset(ShareSet shares, int[] indices) {
+        load(shares, indices);
+
+        if (k >= FAST_THRESHOLD) {
+            // prod_{j != i} (x_i - x_j) = M'(x_i).
+            tree = new MultipointEvaluator(field, xs, k);
+            long[] m = tree.product();
+            long[] derivative = field.newElements(k);
+            for (int i = 0; i < k; i++) {
+                field.fromLong(i + 1, acc, 0);
+                field.mul(m, i + 1, acc, 0, derivative, i);
+            }
+            tree.evaluate(derivative, k, weights, 0);
+        } else {
+            for (int i = 0; i < k; i++) {
+                field.fromLong(1, weights, i);
+                for (int j = 0; j < k; j++) {
+                    if (i == j) continue;
+                    field.sub(xs, i, xs, j, acc, 0);
+                    field.mul(weights, i, acc, 0, weights, i);
+                }
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            if (field.isZero(weights, i)) throw new IllegalArgumentException("Duplicate x-coordinate in shares");
+        }
+        field.batchInverse(weights, 0, k, prefix);
+        for (int i = 0; i < k; i++) field.mul(weights, i, ys, i, weightedYs, i);
+    }
+
+    // Loads the shares at the given indices with weights computed earlier for the same
+    // x-coordinates in the same order, in O(k).
+    void reset(ShareSet shares, int[] indices, long[] weights) {
+        load(shares, indices);
+        System.arraycopy(weights, 0, this.weights, 0, this.weights.length);
+        for (int i = 0; i < k; i++) field.mul(this.weights, i, ys, i, weightedYs, i);
+    }
+
+    private void load(ShareSet shares, int[] indices) {
+        long[] sx = shares.xs();
+        long[] sy = shares.ys();
+        for (int i = 0; i < k; i++) {
+            int index = indices == null ? i : indices[i];
+            field.copy(sx, index, xs, i);
+            field.copy(sy, index, ys, i);
+        }
+        tree = null;
+    }
+
+    // A copy of the weights w_i of the loaded x-coordinates.
+    long[] weights() {
+        return weights.clone();
+    }
+
+    // The k coefficients of the interpolating polynomial, lowest first: sum_i w_i y_i M / (x - x_i).
+    long[] coefficients() {
+        if (tree == null) tree = new MultipointEvaluator(field, xs, k);
+        return tree.combine(weightedYs);
+    }
+
+    void atZero(long[] r, int ri) {
+        field.fromLong(0, acc, 2);
+        evaluate(acc, 2, r, ri);
+    }
+
+    void evaluate(long[] x, int xi, long[] r, int ri) {
+        // prefix[i] = prod_{j < i} (x - x_j); right to left, acc[0] is the suffix product and
+        // acc[1] the sum. x may alias acc[2].
+        field.fromLong(1, prefix, 0);
+        for (int i = 0; i < k; i++) {
+            field.sub(x, xi, xs, i, scratch, i);
+            field.mul(prefix, i, scratch, i, prefix, i + 1);
+        }
+        field.fromLong(1, acc, 0);
+        field.fromLong(0, acc, 1);
+        for (int i = k - 1; i >= 0; i--) {
+            field.mul(prefix, i, acc, 0, prefix, i);
+            field.mul(prefix, i, weightedYs, i, prefix, i);
+            field.add(acc, 1, prefix, i, acc, 1);
+            if (i > 0) field.mul(acc, 0, scratch, i, acc, 0);
+        }
+        field.copy(acc, 1, r, ri);
+    }
+
+    boolean matches(long[] x, int xi, long[] y, int yi) {
+        evaluate(x, xi, acc, 2);
+        return field.equal(acc, 2, y, yi);
+    }
+}
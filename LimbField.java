@@ -0,0 +1,247 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+// GF(p) for multi-word primes (128, 256, 521 bits, ...). Elements are fixed-width little-endian
+// runs of 64-bit limbs holding the canonical residue. Products are formed schoolbook into a
+// 2L-limb scratch buffer and reduced with Knuth's Algorithm D on 32-bit digits, so the inner
+// loops never allocate. The scratch buffers make instances single-threaded; see fork().
+public class LimbField implements Field {
+    private static final long MASK = 0xFFFFFFFFL;
+
+    final BigInteger modulus;
+    final int limbs;
+    final long[] p;
+    final long[] exponent;
+
+    // Normalized divisor for Algorithm D: p << shift split into n 32-bit digits.
+    private final int n;
+    private final int shift;
+    private final int[] vn;
+
+    private final long[] product;
+    private final int[] un;
+    private final long[] powScratch;
+
+    LimbField(BigInteger modulus) {
+        this.modulus = modulus;
+        this.limbs = (modulus.bitLength() + 63) / 64;
+        this.p = Fields.toLimbs(modulus, limbs);
+        this.exponent = Fields.toLimbs(modulus.subtract(BigInteger.TWO), limbs);
+
+        this.n = (modulus.bitLength() + 31) / 32;
+        this.shift = Integer.numberOfLeadingZeros(digit(p, n - 1));
+        this.vn = new int[n];
+        for (int i = n - 1; i > 0; i--) {
+            vn[i] = (digit(p, i) << shift) | (int) ((digit(p, i - 1) & MASK) >>> (32 - shift));
+        }
+        vn[0] = digit(p, 0) << shift;
+
+        this.product = new long[2 * limbs];
+        this.un = new int[4 * limbs + 1];
+        this.powScratch = new long[2 * limbs];
+    }
+
+    @Override
+    public BigInteger modulus() {
+        return modulus;
+    }
+
+    @Override
+    public int limbs() {
+        return limbs;
+    }
+
+    @Override
+    public Field fork() {
+        return new LimbField(modulus);
+    }
+
+    @Override
+    public void fromBigInteger(BigInteger value, long[] r, int ri) {
+        Fields.toLimbs(value.mod(modulus), r, ri * limbs, limbs);
+    }
+
+    @Override
+    public BigInteger toBigInteger(long[] a, int ai) {
+        return Fields.fromLimbs(a, ai * limbs, limbs);
+    }
+
+    @Override
+    public void fromLong(long value, long[] r, int ri) {
+        if (value < 0) {
+            Fields.toLimbs(BigInteger.valueOf(value).mod(modulus), r, ri * limbs, limbs);
+            return;
+        }
+        int ro = ri * limbs;
+        r[ro] = value;
+        for (int i = 1; i < limbs; i++) r[ro + i] = 0;
+        if (limbs == 1 && Long.compareUnsigned(value, p[0]) >= 0) r[ro] = Long.remainderUnsigned(value, p[0]);
+    }
+
+    @Override
+    public void add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        int ao = ai * limbs, bo = bi * limbs, ro = ri * limbs;
+        long carry = 0;
+        for (int i = 0; i < limbs; i++) {
+            long x = a[ao + i], s = x + b[bo + i];
+            long c1 = Long.compareUnsigned(s, x) < 0 ? 1 : 0;
+            long t = s + carry;
+            long c2 = Long.compareUnsigned(t, s) < 0 ? 1 : 0;
+            r[ro + i] = t;
+            carry = c1 | c2;
+        }
+        if (carry != 0 || compareToP(r, ro) >= 0) subtractP(r, ro);
+    }
+
+    @Override
+    public void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        int ao = ai * limbs, bo = bi * limbs, ro = ri * limbs;
+        long borrow = 0;
+        for (int i = 0; i < limbs; i++) {
+            long x = a[ao + i], y = b[bo + i];
+            long d = x - y - borrow;
+            borrow = (Long.compareUnsigned(x, y) < 0 || (x == y && borrow != 0)) ? 1 : 0;
+            r[ro + i] = d;
+        }
+        if (borrow != 0) addP(r, ro);
+    }
+
+    @Override
+    public void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        int ao = ai * limbs, bo = bi * limbs;
+        long[] t = product;
+        Arrays.fill(t, 0);
+        for (int i = 0; i < limbs; i++) {
+            long x = a[ao + i];
+            long carry = 0;
+            for (int j = 0; j < limbs; j++) {
+                long y = b[bo + j];
+                long lo = x * y;
+                long hi = unsignedMultiplyHigh(x, y);
+                long s = t[i + j] + lo;
+                if (Long.compareUnsigned(s, lo) < 0) hi++;
+                long s2 = s + carry;
+                if (Long.compareUnsigned(s2, s) < 0) hi++;
+                t[i + j] = s2;
+                carry = hi;
+            }
+            t[i + limbs] = carry;
+        }
+        reduce(t, r, ri * limbs);
+    }
+
+    @Override
+    public void inv(long[] a, int ai, long[] r, int ri) {
+        long[] base = powScratch;
+        System.arraycopy(a, ai * limbs, base, 0, limbs);
+        fromLong(1, r, ri);
+
+        for (int bit = modulus.bitLength() - 1; bit >= 0; bit--) {
+            mul(r, ri, r, ri, r, ri);
+            if ((exponent[bit >>> 6] & (1L << (bit & 63))) != 0) mul(r, ri, base, 0, r, ri);
+        }
+    }
+
+    static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    int compareToP(long[] r, int ro) {
+        for (int i = limbs - 1; i >= 0; i--) {
+            int c = Long.compareUnsigned(r[ro + i], p[i]);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    void subtractP(long[] r, int ro) {
+        long borrow = 0;
+        for (int i = 0; i < limbs; i++) {
+            long x = r[ro + i], y = p[i];
+            r[ro + i] = x - y - borrow;
+            borrow = (Long.compareUnsigned(x, y) < 0 || (x == y && borrow != 0)) ? 1 : 0;
+        }
+    }
+
+    private void addP(long[] r, int ro) {
+        long carry = 0;
+        for (int i = 0; i < limbs; i++) {
+            long x = r[ro + i], s = x + p[i];
+            long c1 = Long.compareUnsigned(s, x) < 0 ? 1 : 0;
+            long t = s + carry;
+            long c2 = Long.compareUnsigned(t, s) < 0 ? 1 : 0;
+            r[ro + i] = t;
+            carry = c1 | c2;
+        }
+    }
+
+    private static int digit(long[] a, int i) {
+        return (int) (a[i >>> 1] >>> ((i & 1) << 5));
+    }
+
+    // Writes t mod p into r[ro..ro+limbs), where t holds 2 * limbs limbs.
+    private void reduce(long[] t, long[] r, int ro) {
+        int m = 4 * limbs;
+        while (m > 0 && digit(t, m - 1) == 0) m--;
+
+        if (n == 1) {
+            long rem = 0;
+            for (int i = m - 1; i >= 0; i--) rem = Long.remainderUnsigned((rem << 32) | (digit(t, i) & MASK), p[0]);
+            r[ro] = rem;
+            for (int i = 1; i < limbs; i++) r[ro + i] = 0;
+            return;
+        }
+
+        if (m < n) {
+            System.arraycopy(t, 0, r, ro, limbs);
+            return;
+        }
+
+        int[] u = un;
+        u[m] = shift == 0 ? 0 : (int) ((digit(t, m - 1) & MASK) >>> (32 - shift));
+        for (int i = m - 1; i > 0; i--) {
+            u[i] = (digit(t, i) << shift) | (int) ((digit(t, i - 1) & MASK) >>> (32 - shift));
+        }
+        u[0] = digit(t, 0) << shift;
+
+        long vTop = vn[n - 1] & MASK, vNext = vn[n - 2] & MASK;
+        for (int j = m - n; j >= 0; j--) {
+            long num = ((u[j + n] & MASK) << 32) | (u[j + n - 1] & MASK);
+            long qhat = Long.divideUnsigned(num, vTop);
+            long rhat = Long.remainderUnsigned(num, vTop);
+            while (qhat > MASK
+                    || Long.compareUnsigned(qhat * vNext, (rhat << 32) | (u[j + n - 2] & MASK)) > 0) {
+                qhat--;
+                rhat += vTop;
+                if (rhat > MASK) break;
+            }
+
+            long k = 0, d;
+            for (int i = 0; i < n; i++) {
+                long prod = qhat * (vn[i] & MASK);
+                d = (u[i + j] & MASK) - k - (prod & MASK);
+                u[i + j] = (int) d;
+                k = (prod >>> 32) - (d >> 32);
+            }
+            d = (u[j + n] & MASK) - k;
+            u[j + n] = (int) d;
+
+            if (d < 0) {
+                k = 0;
+                for (int i = 0; i < n; i++) {
+                    d = (u[i + j] & MASK) + (vn[i] & MASK) + k;
+                    u[i + j] = (int) d;
+                    k = d >>> 32;
+                }
+                u[j + n] += (int) k;
+            }
+        }
+
+        for (int i = 0; i < limbs; i++) r[ro + i] = 0;
+        for (int i = 0; i < n; i++) {
+            long rem = shift == 0 ? (u[i] & MASK)
+                    : ((u[i] & MASK) >>> shift) | ((u[i + 1] & MASK) << (32 - shift)) & MASK;
+            r[ro + (i >>> 1)] |= rem << ((i & 1) << 5);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load against POST /reconstruct: requests are issued on a fixed schedule at the
+// target rate whether or not earlier ones have returned, and each latency is measured from its
+// scheduled send time, so a stalled server shows up in the tail instead of slowing the load.
+// Every request is one p256 share set (n = 5, k = 3). Without a URL the server runs in this
+// JVM on a free port. A warm-up period at the same rate precedes the measured one.
+//
+//   java LoadTest [requests per second] [seconds] [url]
+public class LoadTest {
+    static final int WARMUP_SECONDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int qps = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ReconstructionServer server = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            server = new ReconstructionServer(0, Runtime.getRuntime().availableProcessors(), List.of());
+            server.start();
+            url = "http://127.0.0.1:" + server.port() + "/reconstruct";
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.ofString(payload())).build();
+        try {
+            run(client, request, qps, WARMUP_SECONDS);
+            long[] latencies = new long[qps * seconds];
+            AtomicInteger errors = new AtomicInteger();
+            long elapsed = run(client, request, qps, seconds, latencies, errors);
+
+            Arrays.sort(latencies);
+            System.out.printf("target %d req/s, achieved %.0f req/s, %d requests, %d errors%n",
+                    qps, latencies.length / (elapsed / 1e9), latencies.length, errors.get());
+            System.out.printf("p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  p99.9 %.2f ms  max %.2f ms%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        } finally {
+            if (server != null) server.stop();
+        }
+    }
+
+    static String payload() throws Exception {
+        Field field = Fields.parse("p256");
+        ShareGenerator generator = new ShareGenerator(field, 3, 5, new SecureRandom());
+        StringWriter out = new StringWriter();
+        new ShareGenerator.ShareWriter(field, generator, 16, "p256").write("123456789012345678901234567890", out);
+        return out.toString();
+    }
+
+    static void run(HttpClient client, HttpRequest request, int qps, int seconds) {
+        run(client, request, qps, seconds, new long[qps * seconds], new AtomicInteger());
+    }
+
+    // Sends latencies.length requests at qps; returns the wall time until the last response.
+    static long run(HttpClient client, HttpRequest request, int qps, int seconds, long[] latencies, AtomicInteger errors) {
+        long interval = 1_000_000_000L / qps;
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[latencies.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < latencies.length; i++) {
+            long scheduled = start + i * interval;
+            for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+            int slot = i;
+            pending[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                latencies[slot] = System.nanoTime() - scheduled;
+                if (failure != null || response.statusCode() != 200) errors.incrementAndGet();
+            });
+        }
+        CompletableFuture.allOf(pending).exceptionally(t -> null).join();
+        return System.nanoTime() - start;
+    }
+
+    static double percentile(long[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+}
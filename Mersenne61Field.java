@@ -0,0 +1,18 @@
+// GF(2^61 - 1). Since 2^61 = 1 mod p, a product reduces by folding its high bits onto its low
+// 61 bits: two shift-and-add steps and one conditional subtraction.
+public class Mersenne61Field extends BarrettField {
+    static final long P = (1L << 61) - 1;
+
+    Mersenne61Field() {
+        super(P);
+    }
+
+    @Override
+    long mulMod(long a, long b) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        long r = (lo & P) + ((lo >>> 61) | (hi << 3));
+        r = (r & P) + (r >>> 61);
+        return r >= P ? r - P : r;
+    }
+}
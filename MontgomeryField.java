@@ -0,0 +1,104 @@
+import java.math.BigInteger;
+
+// LimbField variant that keeps every element in Montgomery form a * R mod p, R = 2^(64L).
+// Multiplication is CIOS Montgomery multiplication, which reduces with multiplies, adds and
+// limb shifts only. Addition and subtraction are unchanged, and conversion happens only at
+// the field boundary (fromLong, fromBigInteger, toBigInteger), so interpolation kernels run
+// entirely in Montgomery form. Requires an odd modulus.
+public class MontgomeryField extends LimbField {
+    private final long pInv;
+    private final long[] r2;
+    private final long[] plainOne;
+    private final long[] t;
+
+    MontgomeryField(BigInteger modulus) {
+        super(modulus);
+        if (!modulus.testBit(0)) throw new IllegalArgumentException("Montgomery form needs an odd modulus");
+
+        long inv = p[0];
+        for (int i = 0; i < 5; i++) inv *= 2 - p[0] * inv;
+        this.pInv = -inv;
+
+        this.r2 = Fields.toLimbs(BigInteger.ONE.shiftLeft(128 * limbs).mod(modulus), limbs);
+        this.plainOne = new long[limbs];
+        this.plainOne[0] = 1;
+        this.t = new long[limbs + 2];
+    }
+
+    @Override
+    public Field fork() {
+        return new MontgomeryField(modulus);
+    }
+
+    @Override
+    public void fromBigInteger(BigInteger value, long[] r, int ri) {
+        super.fromBigInteger(value, r, ri);
+        montMul(r, ri * limbs, r2, 0, r, ri * limbs);
+    }
+
+    @Override
+    public BigInteger toBigInteger(long[] a, int ai) {
+        long[] plain = new long[limbs];
+        montMul(a, ai * limbs, plainOne, 0, plain, 0);
+        return Fields.fromLimbs(plain, 0, limbs);
+    }
+
+    @Override
+    public void fromLong(long value, long[] r, int ri) {
+        super.fromLong(value, r, ri);
+        montMul(r, ri * limbs, r2, 0, r, ri * limbs);
+    }
+
+    @Override
+    public void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        montMul(a, ai * limbs, b, bi * limbs, r, ri * limbs);
+    }
+
+    // r = a * b * R^-1 mod p for a, b < p (offsets in longs).
+    private void montMul(long[] a, int ao, long[] b, int bo, long[] r, int ro) {
+        int L = limbs;
+        long[] t = this.t;
+        for (int i = 0; i < L + 2; i++) t[i] = 0;
+
+        for (int i = 0; i < L; i++) {
+            long bi = b[bo + i];
+            long c = 0;
+            for (int j = 0; j < L; j++) {
+                long x = a[ao + j];
+                long lo = x * bi;
+                long hi = unsignedMultiplyHigh(x, bi);
+                long s = t[j] + lo;
+                if (Long.compareUnsigned(s, lo) < 0) hi++;
+                long s2 = s + c;
+                if (Long.compareUnsigned(s2, c) < 0) hi++;
+                t[j] = s2;
+                c = hi;
+            }
+            long s = t[L] + c;
+            t[L + 1] = Long.compareUnsigned(s, c) < 0 ? 1 : 0;
+            t[L] = s;
+
+            long m = t[0] * pInv;
+            long lo = m * p[0];
+            long hi = unsignedMultiplyHigh(m, p[0]);
+            c = hi + (Long.compareUnsigned(t[0] + lo, lo) < 0 ? 1 : 0);
+            for (int j = 1; j < L; j++) {
+                long y = p[j];
+                lo = m * y;
+                hi = unsignedMultiplyHigh(m, y);
+                long s1 = t[j] + lo;
+                if (Long.compareUnsigned(s1, lo) < 0) hi++;
+                long s2 = s1 + c;
+                if (Long.compareUnsigned(s2, c) < 0) hi++;
+                t[j - 1] = s2;
+                c = hi;
+            }
+            s = t[L] + c;
+            t[L - 1] = s;
+            t[L] = t[L + 1] + (Long.compareUnsigned(s, c) < 0 ? 1 : 0);
+        }
+
+        System.arraycopy(t, 0, r, ro, L);
+        if (t[L] != 0 || compareToP(r, ro) >= 0) subtractP(r, ro);
+    }
+}
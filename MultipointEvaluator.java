@@ -0,0 +1,132 @@
+// Evaluates polynomials at a fixed set of n points with a subproduct tree. Every node holds
+// prod (x - x_i) over its range of points; a polynomial is reduced modulo a node and then
+// modulo each of its children, and ranges of at most LEAF_SIZE points finish with Horner on the
+// small remainder. With the fast products in Polynomials that is O(M(n) log n) field operations
+// instead of the O(n k) of evaluating each point separately. The tree depends only on the
+// points, so it is built once and reused for every polynomial. The same tree gives the Lagrange
+// numerator sum_i c_i prod_{j != i} (x - x_j) bottom-up (combine), which LagrangeInterpolator
+// uses for fast interpolation. Not thread-safe.
+public class MultipointEvaluator {
+    static final int LEAF_SIZE = 32;
+
+    private final Field field;
+    private final Polynomials polynomials;
+    private final long[] xs;
+    private final Node root;
+    private final long[] t;
+
+    private static final class Node {
+        final int from;
+        final int to;
+        long[] product;
+        long[] inverse;
+        Node left;
+        Node right;
+
+        Node(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // xs holds the n evaluation points as elements 0..n-1.
+    MultipointEvaluator(Field field, long[] xs, int n) {
+        if (n < 1) throw new IllegalArgumentException("Need at least one point");
+        this.field = field;
+        this.xs = xs;
+        polynomials = new Polynomials(field);
+        t = field.newElements(2);
+        root = build(0, n);
+    }
+
+    private Node build(int from, int to) {
+        Node node = new Node(from, to);
+        if (to - from <= LEAF_SIZE) {
+            long[] p = field.newElements(to - from + 1);
+            field.fromLong(1, p, 0);
+            for (int i = from; i < to; i++) mulLinear(p, i - from + 1, i);
+            node.product = p;
+            return node;
+        }
+        int mid = (from + to) >>> 1;
+        node.left = build(from, mid);
+        node.right = build(mid, to);
+        node.product = polynomials.multiply(node.left.product, node.right.product);
+        return node;
+    }
+
+    // prod (x - x_i) over all points; n + 1 coefficients.
+    long[] product() {
+        return root.product;
+    }
+
+    // p[0..len) <- p * (x - x_i), growing it to len + 1 coefficients.
+    private void mulLinear(long[] p, int len, int i) {
+        field.copy(p, len - 1, p, len);
+        for (int j = len - 1; j > 0; j--) {
+            field.mul(p, j, xs, i, p, j);
+            field.sub(p, j - 1, p, j, p, j);
+        }
+        field.mul(p, 0, xs, i, p, 0);
+        field.fromLong(0, t, 0);
+        field.sub(t, 0, p, 0, p, 0);
+    }
+
+    // sum_i c_i prod_{j != i} (x - x_j), the numerator of the Lagrange form, as n coefficients.
+    // A node combines its children as N_left M_right + N_right M_left.
+    long[] combine(long[] c) {
+        return combine(root, c);
+    }
+
+    private long[] combine(Node node, long[] c) {
+        if (node.left == null) {
+            // N <- N (x - x_i) + c_i P and P <- P (x - x_i), one point at a time.
+            int m = node.to - node.from;
+            long[] num = field.newElements(m);
+            long[] p = field.newElements(m + 1);
+            field.fromLong(1, p, 0);
+            for (int i = node.from; i < node.to; i++) {
+                int d = i - node.from;
+                if (d > 0) mulLinear(num, d, i);
+                for (int j = 0; j <= d; j++) {
+                    field.mul(c, i, p, j, t, 1);
+                    field.add(num, j, t, 1, num, j);
+                }
+                mulLinear(p, d + 1, i);
+            }
+            return num;
+        }
+        long[] a = polynomials.multiply(combine(node.left, c), node.right.product);
+        long[] b = polynomials.multiply(combine(node.right, c), node.left.product);
+        for (int i = 0, len = polynomials.length(a); i < len; i++) field.add(a, i, b, i, a, i);
+        return a;
+    }
+
+    // r[ri + i] = f(x_i) for the polynomial f with coefficients[0..len).
+    void evaluate(long[] coefficients, int len, long[] r, int ri) {
+        long[] f = field.newElements(len);
+        System.arraycopy(coefficients, 0, f, 0, len * field.limbs());
+        descend(root, f, r, ri);
+    }
+
+    private void descend(Node node, long[] f, long[] r, int ri) {
+        int lf = polynomials.length(f);
+        int lp = polynomials.length(node.product);
+        if (lf >= lp) {
+            int needed = lf - lp + 1;
+            if (node.inverse == null || polynomials.length(node.inverse) < needed) {
+                node.inverse = polynomials.reverseInverse(node.product, needed);
+            }
+            f = polynomials.remainder(f, node.product, node.inverse);
+            lf = lp - 1;
+        }
+        if (node.left == null) {
+            for (int i = node.from; i < node.to; i++) {
+                BerlekampWelch.evaluate(field, f, lf, xs, i, r, ri + i);
+            }
+            return;
+        }
+        descend(node.left, f, r, ri);
+        descend(node.right, f, r, ri);
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Splits the revolving-door rank space [0, C(n,k)) into ranges and validates them on a
+// fork-join pool. Every leaf owns its cursor, interpolator and validator. The first consistent
+// subset cancels the remaining work; in deterministic mode workers keep going only while
+// they can still find a lower rank, so the result matches the sequential search.
+public class ParallelSubsetSearch {
+    static final long LEAF_SIZE = 1 << 12;
+    static final long NOT_FOUND = Long.MAX_VALUE;
+
+    private final Field field;
+    private final ShareSet allShares;
+    private final int k;
+    private final boolean deterministic;
+    private final long[][] binomials;
+    private final AtomicLong bestRank = new AtomicLong(NOT_FOUND);
+
+    private ParallelSubsetSearch(Field field, ShareSet allShares, int k, boolean deterministic, long[][] binomials) {
+        this.field = field;
+        this.allShares = allShares;
+        this.k = k;
+        this.deterministic = deterministic;
+        this.binomials = binomials;
+    }
+
+    static boolean search(Field field, ShareSet allShares, int k, boolean deterministic, long[] secret) {
+        return search(field, allShares, k, deterministic, secret, ForkJoinPool.commonPool());
+    }
+
+    static boolean search(Field field, ShareSet allShares, int k, boolean deterministic, long[] secret,
+                          ForkJoinPool pool) {
+        // One ranking table for every leaf cursor.
+        long[][] binomials = SubsetCursor.binomials(allShares.size(), k);
+        long total = binomials[allShares.size()][k];
+        if (total == Long.MAX_VALUE) throw new ArithmeticException("Too many subsets to search");
+
+        ParallelSubsetSearch search = new ParallelSubsetSearch(field, allShares, k, deterministic, binomials);
+        long leafSize = Math.max(1, Math.min(LEAF_SIZE, total / (pool.getParallelism() * 8L)));
+        pool.invoke(search.new RangeTask(0, total, leafSize));
+
+        long rank = search.bestRank.get();
+        if (rank == NOT_FOUND) return false;
+
+        SubsetCursor cursor = new SubsetCursor(allShares.size(), k, binomials);
+        cursor.seek(rank);
+        cursor.next();
+        new LagrangeInterpolator(field, allShares, cursor.indices()).atZero(secret, 0);
+        return true;
+    }
+
+    private boolean cancelled(long rank) {
+        long best = bestRank.get();
+        return deterministic ? rank >= best : best != NOT_FOUND;
+    }
+
+    private void found(long rank) {
+        bestRank.accumulateAndGet(rank, Math::min);
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long leafSize;
+
+        RangeTask(long from, long to, long leafSize) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled(from)) return;
+            if (to - from <= leafSize) {
+                scan();
+                return;
+            }
+            long mid = from + (to - from) / 2;
+            invokeAll(new RangeTask(from, mid, leafSize), new RangeTask(mid, to, leafSize));
+        }
+
+        private void scan() {
+            Field local = field.fork();
+            SubsetCursor cursor = new SubsetCursor(allShares.size(), k, binomials);
+            LagrangeInterpolator interpolator = new LagrangeInterpolator(local, k);
+            SubsetValidator validator = new SubsetValidator(allShares);
+            cursor.seek(from);
+
+            for (long rank = from; rank < to && cursor.next(); rank++) {
+                if (cancelled(rank)) return;
+                interpolator.reset(allShares, cursor.indices());
+                if (validator.isConsistent(interpolator, cursor.indices())) {
+                    found(rank);
+                    return;
+                }
+            }
+        }
+    }
+}
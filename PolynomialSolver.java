@@ -1,143 +1,116 @@
-import org.json.JSONObject;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class PolynomialSolver {
     static final int PRIME = 2089;
 
-    static int baseToInt(String str, int base) {
-        int value = 0;
-        for (char c : str.toCharArray()) {
-            int digit;
-            if (Character.isDigit(c)) digit = c - '0';
-            else if (Character.isLetter(c)) digit = Character.toLowerCase(c) - 'a' + 10;
-            else throw new IllegalArgumentException("Invalid digit in base string");
-
-            if (digit >= base) throw new IllegalArgumentException("Digit exceeds base");
-
-            value = (value * base + digit) % PRIME;
-        }
-        return value;
+    static void baseToInt(CharSequence str, int base, Field field, long[] r, int ri) {
+        RadixParser.parse(str, base, field, r, ri);
     }
 
-    static int modInverse(int a) {
-        int res = 1, b = PRIME - 2;
-        a %= PRIME;
-        while (b > 0) {
-            if ((b & 1) != 0) res = (res * a) % PRIME;
-            a = (a * a) % PRIME;
-            b >>= 1;
+    // Interpolates the secret through the first k shares and checks every other share against
+    // that polynomial, O(k) each. The interpolator comes from the shared Lagrange cache, so a
+    // repeated x-set skips the O(k^2) weights (or the subproduct tree from FAST_THRESHOLD on).
+    // False if a share disagrees, or if the first k shares repeat an x-coordinate; either way
+    // only Berlekamp-Welch can tell which shares are bad.
+    static boolean interpolateVerified(Field field, ShareSet shares, int k, long[] secret) {
+        try {
+            LagrangeInterpolator interpolator = LagrangeCache.SHARED.interpolator(field, shares, k);
+            interpolator.atZero(secret, 0);
+            for (int i = k; i < shares.size(); i++) {
+                if (!interpolator.matches(shares.xs(), i, shares.ys(), i)) return false;
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            if (shares.size() == k) throw e;
+            return false;
         }
-        return res;
     }
 
-    static int interpolateAtZero(List<int[]> shares) {
-        int secret = 0;
-        int k = shares.size();
-
-        for (int i = 0; i < k; i++) {
-            int xi = shares.get(i)[0];
-            int yi = shares.get(i)[1];
-            int num = 1, den = 1;
-
-            for (int j = 0; j < k; j++) {
-                if (i == j) continue;
-                int xj = shares.get(j)[0];
-                num = (num * ((-xj + PRIME) % PRIME)) % PRIME;
-                den = (den * ((xi - xj + PRIME) % PRIME)) % PRIME;
+    public static void main(String[] args) {
+        List<String> flags = Arrays.asList(args);
+        if (option(flags, "--split=") != null || option(flags, "--split-batch=") != null) {
+            try {
+                ShareGenerator.run(flags);
+            } catch (Exception e) {
+                System.err.println("An error occurred: " + e.getMessage());
+                e.printStackTrace();
             }
-
-            int term = (((yi * num) % PRIME) * modInverse(den)) % PRIME;
-            secret = (secret + term) % PRIME;
+            return;
         }
-        return secret;
-    }
 
-    static int evaluateAtX(List<int[]> shares, int x) {
-        int result = 0;
-        int k = shares.size();
-
-        for (int i = 0; i < k; i++) {
-            int xi = shares.get(i)[0];
-            int yi = shares.get(i)[1];
-            int num = 1, den = 1;
-
-            for (int j = 0; j < k; j++) {
-                if (i == j) continue;
-                int xj = shares.get(j)[0];
-                num = (num * ((x - xj + PRIME) % PRIME)) % PRIME;
-                den = (den * ((xi - xj + PRIME) % PRIME)) % PRIME;
+        if (option(flags, "--serve=") != null) {
+            try {
+                ReconstructionServer.run(flags);
+            } catch (Exception e) {
+                System.err.println("An error occurred: " + e.getMessage());
+                e.printStackTrace();
             }
-
-            int term = (((yi * num) % PRIME) * modInverse(den)) % PRIME;
-            result = (result + term) % PRIME;
+            return;
         }
-        return result;
-    }
 
-    public static void main(String[] args) {
-        try {
-            JSONObject json = new JSONObject(new FileReader("input.json"));
-            int k = json.getJSONObject("keys").getInt("k");
+        String batch = option(flags, "--batch=");
+        if (batch != null) {
+            try {
+                BatchPipeline.run(Paths.get(batch), option(flags, "--out="), flags);
+            } catch (Exception e) {
+                System.err.println("An error occurred: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
 
-            List<int[]> allShares = new ArrayList<>();
+        try (ShareReader reader = new ShareReader(new FileReader("input.json"))) {
+            if (reader.next() != ShareReader.Event.SET_START) throw new IOException("Expected a share-set object");
+            if (flags.contains("--gf256")) {
+                reconstructBytes(reader);
+                return;
+            }
 
-            for (String key : json.keySet()) {
-                if (key.equals("keys")) continue;
+            Field field = null;
+            int k = -1;
+            ShareSet allShares = null;
 
-                int x = Integer.parseInt(key);
-                JSONObject yObj = json.getJSONObject(key);
-                int base = Integer.parseInt(yObj.getString("base"));
-                String valueStr = yObj.getString("value");
+            for (ShareReader.Event event; (event = reader.next()) != ShareReader.Event.SET_END; ) {
+                if (event == ShareReader.Event.KEYS) {
+                    k = reader.k();
+                    Field jobField = selectField(flags, reader.prime());
+                    if (field != null && !field.modulus().equals(jobField.modulus())) {
+                        throw new IOException("\"prime\" in keys must come before the shares");
+                    }
+                    field = jobField;
+                    continue;
+                }
+                if (field == null) field = selectField(flags, null);
+                if (allShares == null) allShares = new ShareSet(field, 16);
 
+                int i = allShares.add();
+                field.fromLong(reader.x(), allShares.xs(), i);
                 try {
-                    int y = baseToInt(valueStr, base);
-                    allShares.add(new int[]{x, y});
+                    baseToInt(reader.value(), reader.base(), field, allShares.ys(), i);
                 } catch (Exception e) {
                     System.out.println("Invalid secret: failed to parse or convert one of the keys");
                     return;
                 }
             }
-
-            if (allShares.size() < k) {
-                System.out.println("Not enough shares to reconstruct the secret");
+            if (k < 0) throw new IOException("Missing keys object");
+            if (allShares == null) allShares = new ShareSet(field, 0);
+
+            long[] secret = field.newElements(1);
+            List<Integer> badShares = new ArrayList<>();
+            String failure = recover(field, allShares, k, flags, secret, badShares);
+            if (failure != null) {
+                System.out.println(failure);
                 return;
             }
 
-            List<Integer> indices = new ArrayList<>();
-            for (int i = 0; i < allShares.size(); i++) indices.add(i);
-
-            int finalSecret = -1;
-            boolean found = false;
-
-            outerLoop:
-            for (List<Integer> comb : combinations(indices, k)) {
-                List<int[]> selected = comb.stream().map(allShares::get).collect(Collectors.toList());
-                int candidateSecret = interpolateAtZero(selected);
-
-                boolean valid = true;
-                for (int[] point : allShares) {
-                    int x = point[0];
-                    int actualY = point[1];
-                    int expectedY = evaluateAtX(selected, x);
-                    if (expectedY != actualY) {
-                        valid = false;
-                        break;
-                    }
-                }
-
-                if (valid) {
-                    finalSecret = candidateSecret;
-                    found = true;
-                    break outerLoop;
-                }
-            }
-
-            if (found) {
-                System.out.println("Secret key is: " + finalSecret);
-            } else {
-                System.out.println("Could not validate secret with any combination of shares");
+            System.out.println("Secret key is: " + field.toBigInteger(secret, 0));
+            if (!badShares.isEmpty()) {
+                StringJoiner bad = new StringJoiner(", ");
+                for (int i : badShares) bad.add(field.toBigInteger(allShares.xs(), i).toString());
+                System.out.println("Corrupt shares: " + bad);
             }
 
         } catch (Exception e) {
@@ -146,21 +119,117 @@ public class PolynomialSolver {
         }
     }
 
-    private static List<List<Integer>> combinations(List<Integer> input, int k) {
-        List<List<Integer>> result = new ArrayList<>();
-        backtrack(input, k, 0, new ArrayList<>(), result);
-        return result;
+    // Recovers the secret with the mode selected by flags. Returns null on success, with the
+    // secret in secret[0] and the indices of shares that disagree with it in badShares, or the
+    // message explaining why no secret could be validated.
+    static String recover(Field field, ShareSet allShares, int k, List<String> flags,
+                          long[] secret, List<Integer> badShares) {
+        if (allShares.size() < k) return "Not enough shares to reconstruct the secret";
+
+        if (flags.contains("--search") || flags.contains("--parallel")) {
+            boolean found = flags.contains("--parallel")
+                    ? ParallelSubsetSearch.search(field, allShares, k, flags.contains("--deterministic"), secret)
+                    : searchSubsets(field, allShares, k, secret);
+            return found ? null : "Could not validate secret with any combination of shares";
+        }
+
+        // Shares are rarely corrupt, so try the plain interpolation first and pay for the O(n^3)
+        // decode only when some share disagrees with it.
+        if (interpolateVerified(field, allShares, k, secret)) return null;
+        BerlekampWelch.Result result = BerlekampWelch.decode(field, allShares, k);
+        if (result == null) {
+            return "Could not validate secret: more than "
+                    + BerlekampWelch.maxErrors(allShares.size(), k) + " corrupt shares";
+        }
+        field.copy(result.coefficients, 0, secret, 0);
+        badShares.addAll(result.badShares);
+        return null;
     }
 
-    private static void backtrack(List<Integer> input, int k, int start, List<Integer> temp, List<List<Integer>> result) {
-        if (temp.size() == k) {
-            result.add(new ArrayList<>(temp));
+    // GF(256) mode: every share value is a base-16 byte string and the secret is recovered
+    // byte-wise from the first k shares in x order. The other shares must lie on the same
+    // polynomials; any that do not, or differ in length, are reported instead of a secret.
+    static void reconstructBytes(ShareReader reader) throws IOException {
+        TreeMap<Integer, byte[]> shares = new TreeMap<>();
+        int k = -1;
+        for (ShareReader.Event event; (event = reader.next()) != ShareReader.Event.SET_END; ) {
+            if (event == ShareReader.Event.KEYS) {
+                k = reader.k();
+                continue;
+            }
+            try {
+                if (reader.base() != 16) throw new IllegalArgumentException("GF(256) shares must be base 16");
+                shares.put(Math.toIntExact(reader.x()), HexFormat.of().parseHex(reader.value()));
+            } catch (Exception e) {
+                System.out.println("Invalid secret: failed to parse or convert one of the keys");
+                return;
+            }
+        }
+        if (k < 0) throw new IOException("Missing keys object");
+
+        if (shares.size() < k) {
+            System.out.println("Not enough shares to reconstruct the secret");
+            return;
+        }
+
+        int[] xs = new int[k];
+        byte[][] ys = new byte[k][];
+        int i = 0;
+        StringJoiner bad = new StringJoiner(", ");
+        byte[] expected = null;
+        for (Map.Entry<Integer, byte[]> share : shares.entrySet()) {
+            byte[] value = share.getValue();
+            if (i < k) {
+                xs[i] = share.getKey();
+                ys[i++] = value;
+                if (value.length != ys[0].length) throw new IllegalArgumentException("GF(256) shares differ in length");
+                continue;
+            }
+            if (expected == null) expected = new byte[ys[0].length];
+            if (value.length == expected.length) {
+                ByteShamir.combine(ByteShamir.lagrangeAt(xs, share.getKey()), ys, expected);
+                if (Arrays.equals(value, expected)) continue;
+            }
+            bad.add(share.getKey().toString());
+        }
+        if (bad.length() > 0) {
+            System.out.println("Could not validate secret: " + (bad.toString().contains(",") ? "shares " + bad + " disagree"
+                    : "share " + bad + " disagrees") + " with the first " + k);
             return;
         }
-        for (int i = start; i < input.size(); i++) {
-            temp.add(input.get(i));
-            backtrack(input, k, i + 1, temp, result);
-            temp.remove(temp.size() - 1);
+        System.out.println("Secret key is: " + HexFormat.of().formatHex(ByteShamir.reconstruct(xs, ys)));
+    }
+
+    // --prime=<decimal|p128|p256|p521> wins over the job's "prime" key; both default to PRIME.
+    // --reference swaps in the BigInteger implementation for cross-checking.
+    static Field selectField(List<String> flags, String jobPrime) {
+        String spec = option(flags, "--prime=");
+        if (spec == null) spec = jobPrime != null ? jobPrime : String.valueOf(PRIME);
+        Field field = Fields.parse(spec);
+        return flags.contains("--reference") ? Fields.reference(field.modulus()) : field;
+    }
+
+    // The value of the last "--name=value" flag, or null.
+    static String option(List<String> flags, String prefix) {
+        String value = null;
+        for (String flag : flags) {
+            if (flag.startsWith(prefix)) value = flag.substring(prefix.length());
+        }
+        return value;
+    }
+
+    static boolean searchSubsets(Field field, ShareSet allShares, int k, long[] secret) {
+        SubsetCursor cursor = new SubsetCursor(allShares.size(), k);
+        LagrangeInterpolator interpolator = new LagrangeInterpolator(field, k);
+        SubsetValidator validator = new SubsetValidator(allShares);
+
+        while (cursor.next()) {
+            interpolator.reset(allShares, cursor.indices());
+            if (validator.isConsistent(interpolator, cursor.indices())) {
+                interpolator.atZero(secret, 0);
+                return true;
+            }
         }
+        return false;
     }
 }
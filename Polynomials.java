@@ -0,0 +1,232 @@
+import java.math.BigInteger;
+
+// Dense polynomial arithmetic over a Field. A polynomial is a long[] of field elements, lowest
+// coefficient first, with exactly one element per coefficient. Products use a number-theoretic
+// transform when p - 1 has a large enough power-of-two factor (p = c * 2^s + 1, e.g. 998244353)
+// and Karatsuba otherwise; division with remainder multiplies by a Newton-iteration inverse of
+// the reversed divisor, so it costs a constant number of products. Keeps scratch state, so an
+// instance must not be shared between threads.
+public class Polynomials {
+    static final int SCHOOLBOOK_THRESHOLD = 32;
+    static final int NTT_THRESHOLD = 128;
+
+    private final Field field;
+    private final int limbs;
+    private final int twoAdicity;
+    private final long[] rootOfUnity;
+    private final long[] t;
+    private long[] twiddles;
+    private long[] inverseTwiddles;
+    private int twiddleSize;
+
+    Polynomials(Field field) {
+        this.field = field;
+        limbs = field.limbs();
+        t = field.newElements(2);
+
+        // A primitive 2^s-th root of unity is z^((p - 1) / 2^s) for any quadratic non-residue z.
+        BigInteger p = field.modulus();
+        BigInteger order = p.subtract(BigInteger.ONE);
+        int s = order.getLowestSetBit();
+        if (p.bitLength() > 2 && 1 << Math.min(s, 30) >= NTT_THRESHOLD) {
+            BigInteger z = BigInteger.TWO;
+            while (!z.modPow(order.shiftRight(1), p).equals(order)) z = z.add(BigInteger.ONE);
+            twoAdicity = Math.min(s, 30);
+            rootOfUnity = field.newElements(1);
+            field.fromBigInteger(z.modPow(order.shiftRight(twoAdicity), p), rootOfUnity, 0);
+        } else {
+            twoAdicity = 0;
+            rootOfUnity = null;
+        }
+    }
+
+    // True when products of the given length can go through the NTT.
+    boolean nttFriendly(int length) {
+        return rootOfUnity != null && length <= 1 << twoAdicity;
+    }
+
+    int length(long[] a) {
+        return a.length / limbs;
+    }
+
+    long[] multiply(long[] a, long[] b) {
+        int la = length(a);
+        int lb = length(b);
+        if (la == 0 || lb == 0) return field.newElements(0);
+        int len = la + lb - 1;
+        if (len >= NTT_THRESHOLD && nttFriendly(Integer.highestOneBit(len - 1) << 1)) {
+            return multiplyNtt(a, la, b, lb);
+        }
+        long[] r = field.newElements(len);
+        multiplyAdd(a, 0, la, b, 0, lb, r, 0);
+        return r;
+    }
+
+    // r[ro..] += a[ao..ao+la) * b[bo..bo+lb), by Karatsuba down to SCHOOLBOOK_THRESHOLD.
+    // Unbalanced operands are cut into slices of the shorter length.
+    void multiplyAdd(long[] a, int ao, int la, long[] b, int bo, int lb, long[] r, int ro) {
+        if (la < lb) {
+            multiplyAdd(b, bo, lb, a, ao, la, r, ro);
+            return;
+        }
+        if (lb < SCHOOLBOOK_THRESHOLD) {
+            for (int i = 0; i < la; i++) {
+                for (int j = 0; j < lb; j++) {
+                    field.mul(a, ao + i, b, bo + j, t, 0);
+                    field.add(r, ro + i + j, t, 0, r, ro + i + j);
+                }
+            }
+            return;
+        }
+        int h = (la + 1) / 2;
+        if (lb <= h) {
+            for (int i = 0; i < la; i += lb) multiplyAdd(a, ao + i, Math.min(lb, la - i), b, bo, lb, r, ro + i);
+            return;
+        }
+
+        // a = a0 + x^h a1, b = b0 + x^h b1; a*b = z0 + x^h (z1 - z0 - z2) + x^2h z2.
+        int la1 = la - h;
+        int lb1 = lb - h;
+        long[] z0 = field.newElements(2 * h - 1);
+        long[] z2 = field.newElements(la1 + lb1 - 1);
+        multiplyAdd(a, ao, h, b, bo, h, z0, 0);
+        multiplyAdd(a, ao + h, la1, b, bo + h, lb1, z2, 0);
+
+        long[] sa = field.newElements(h);
+        long[] sb = field.newElements(h);
+        for (int i = 0; i < h; i++) {
+            field.copy(a, ao + i, sa, i);
+            field.copy(b, bo + i, sb, i);
+        }
+        for (int i = 0; i < la1; i++) field.add(sa, i, a, ao + h + i, sa, i);
+        for (int i = 0; i < lb1; i++) field.add(sb, i, b, bo + h + i, sb, i);
+        long[] z1 = field.newElements(2 * h - 1);
+        multiplyAdd(sa, 0, h, sb, 0, h, z1, 0);
+
+        for (int i = 0; i < 2 * h - 1; i++) {
+            field.sub(z1, i, z0, i, z1, i);
+            field.add(r, ro + i, z0, i, r, ro + i);
+        }
+        for (int i = 0; i < la1 + lb1 - 1; i++) {
+            field.sub(z1, i, z2, i, z1, i);
+            field.add(r, ro + 2 * h + i, z2, i, r, ro + 2 * h + i);
+        }
+        for (int i = 0; i < 2 * h - 1; i++) field.add(r, ro + h + i, z1, i, r, ro + h + i);
+    }
+
+    private long[] multiplyNtt(long[] a, int la, long[] b, int lb) {
+        int len = la + lb - 1;
+        int size = Integer.highestOneBit(len - 1) << 1;
+        prepareTwiddles(size);
+        long[] fa = field.newElements(size);
+        long[] fb = field.newElements(size);
+        System.arraycopy(a, 0, fa, 0, la * limbs);
+        System.arraycopy(b, 0, fb, 0, lb * limbs);
+        transform(fa, size, twiddles);
+        transform(fb, size, twiddles);
+        for (int i = 0; i < size; i++) field.mul(fa, i, fb, i, fa, i);
+        transform(fa, size, inverseTwiddles);
+
+        field.fromLong(size, t, 0);
+        field.inv(t, 0, t, 0);
+        long[] r = field.newElements(len);
+        for (int i = 0; i < len; i++) field.mul(fa, i, t, 0, r, i);
+        return r;
+    }
+
+    // Powers w^j, j < size / 2, of a primitive size-th root of unity and of its inverse; a
+    // smaller transform reads every (twiddleSize / size)-th entry.
+    private void prepareTwiddles(int size) {
+        if (size <= twiddleSize) return;
+        long[] w = field.newElements(2);
+        field.copy(rootOfUnity, 0, w, 0);
+        for (int s = twoAdicity; 1 << s > size; s--) field.mul(w, 0, w, 0, w, 0);
+        field.inv(w, 0, w, 1);
+
+        twiddles = field.newElements(size / 2);
+        inverseTwiddles = field.newElements(size / 2);
+        field.fromLong(1, twiddles, 0);
+        field.fromLong(1, inverseTwiddles, 0);
+        for (int j = 1; j < size / 2; j++) {
+            field.mul(twiddles, j - 1, w, 0, twiddles, j);
+            field.mul(inverseTwiddles, j - 1, w, 1, inverseTwiddles, j);
+        }
+        twiddleSize = size;
+    }
+
+    // In-place iterative Cooley-Tukey transform of a[0..size).
+    private void transform(long[] a, int size, long[] w) {
+        for (int i = 1, j = 0; i < size; i++) {
+            int bit = size >> 1;
+            for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+            j ^= bit;
+            if (i < j) {
+                field.copy(a, i, t, 1);
+                field.copy(a, j, a, i);
+                field.copy(t, 1, a, j);
+            }
+        }
+        for (int len = 2; len <= size; len <<= 1) {
+            int half = len >> 1;
+            int stride = twiddleSize / len;
+            for (int i = 0; i < size; i += len) {
+                for (int j = 0; j < half; j++) {
+                    int u = i + j;
+                    int v = u + half;
+                    field.mul(a, v, w, j * stride, t, 0);
+                    field.sub(a, u, t, 0, a, v);
+                    field.add(a, u, t, 0, a, u);
+                }
+            }
+        }
+    }
+
+    // The first len coefficients of 1 / rev(g), where rev(g) = x^deg(g) g(1/x) has the leading
+    // coefficient of g as its constant term. Newton iteration h <- h (2 - rev(g) h) doubles the
+    // number of correct coefficients per step.
+    long[] reverseInverse(long[] g, int len) {
+        int lg = length(g);
+        long[] rev = field.newElements(lg);
+        for (int i = 0; i < lg; i++) field.copy(g, lg - 1 - i, rev, i);
+
+        long[] h = field.newElements(1);
+        field.inv(rev, 0, h, 0);
+        for (int m = 1; m < len; ) {
+            m = Math.min(2 * m, len);
+            long[] e = truncate(multiply(truncate(rev, m), h), m);
+            field.fromLong(2, t, 1);
+            field.fromLong(0, t, 0);
+            for (int i = 0; i < m; i++) field.sub(t, 0, e, i, e, i);
+            field.add(e, 0, t, 1, e, 0);
+            h = truncate(multiply(h, e), m);
+        }
+        return h;
+    }
+
+    // f mod g, given inverse = reverseInverse(g, len) with len >= length(f) - length(g) + 1.
+    long[] remainder(long[] f, long[] g, long[] inverse) {
+        int lf = length(f);
+        int lg = length(g);
+        if (lf < lg) return f.clone();
+
+        // The quotient reversed is rev(f) / rev(g) mod x^(lf - lg + 1).
+        int lq = lf - lg + 1;
+        long[] revF = field.newElements(lq);
+        for (int i = 0; i < lq; i++) field.copy(f, lf - 1 - i, revF, i);
+        long[] revQ = truncate(multiply(revF, truncate(inverse, lq)), lq);
+        long[] q = field.newElements(lq);
+        for (int i = 0; i < lq; i++) field.copy(revQ, lq - 1 - i, q, i);
+
+        long[] gq = multiply(g, q);
+        long[] r = field.newElements(lg - 1);
+        for (int i = 0; i < lg - 1; i++) field.sub(f, i, gq, i, r, i);
+        return r;
+    }
+
+    long[] truncate(long[] a, int len) {
+        if (length(a) == len) return a;
+        long[] r = field.newElements(len);
+        System.arraycopy(a, 0, r, 0, Math.min(len, length(a)) * limbs);
+        return r;
+    }
+}
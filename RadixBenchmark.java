@@ -0,0 +1,110 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+// Conversion time of long digit strings to exact integers: RadixParser's chunked loop alone,
+// parseExact (divide and conquer above DIVIDE_THRESHOLD digits), and new BigInteger(s, radix)
+// for reference; plus reduction into the 256-bit field, which stays linear in the digit count.
+// Inputs run from 1K to 1M digits in the bases of the archived shares and in base 10. A last
+// section times digit decoding on 100K-digit values: the table lookup against the
+// Character.isDigit/isLetter/toLowerCase decoding it replaced, chunk by chunk and one digit per
+// multiply as baseToInt once did. It reduces into 2^61 - 1, whose multiply is cheap enough
+// that decoding dominates.
+//
+//   java RadixBenchmark [max digits]
+public class RadixBenchmark {
+    static final int ROUNDS = 3;
+
+    static volatile Object sink;
+
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Field field = Fields.parse("p256");
+        for (int base : new int[]{3, 7, 10}) {
+            System.out.println("base " + base);
+            for (int digits = 1000; digits <= max; digits *= 10) {
+                String s = digits(base, digits);
+                int n = digits;
+                System.out.printf("  %,9d digits%n", n);
+                report("linear", () -> sink = RadixParser.parseLinear(s, 0, n, base));
+                report("parseExact", () -> sink = RadixParser.parseExact(s, base));
+                report("BigInteger(String)", () -> sink = new BigInteger(s, base));
+                long[] r = field.newElements(1);
+                report("field p256", () -> {
+                    RadixParser.parse(s, base, field, r, 0);
+                    sink = r;
+                });
+            }
+        }
+        decoding(Fields.parse("m61"));
+    }
+
+    static void decoding(Field field) {
+        long[] r = field.newElements(1);
+        for (int base : new int[]{10, 16, 36}) {
+            String s = digits(base, 100_000);
+            System.out.println("decoding, base " + base + ", 100,000 digits");
+            report("per digit, Character", () -> sink = perDigit(s, base, field));
+            report("chunked, Character", () -> sink = chunked(s, base, field));
+            report("chunked, table", () -> {
+                RadixParser.parse(s, base, field, r, 0);
+                sink = r;
+            });
+        }
+    }
+
+    static long[] perDigit(CharSequence s, int base, Field field) {
+        long[] r = field.newElements(3);
+        field.fromLong(base, r, 1);
+        for (int i = 0; i < s.length(); i++) {
+            field.fromLong(characterDigit(s.charAt(i), base), r, 2);
+            field.mul(r, 0, r, 1, r, 0);
+            field.add(r, 0, r, 2, r, 0);
+        }
+        return r;
+    }
+
+    // RadixParser.parse with the Character-based decoding.
+    static long[] chunked(CharSequence s, int base, Field field) {
+        int m = RadixParser.CHUNK_DIGITS[base];
+        long[] r = field.newElements(3);
+        field.fromLong(RadixParser.CHUNK_POWER[base], r, 1);
+        int first = s.length() % m == 0 ? m : s.length() % m;
+        for (int from = 0, to = first; from < s.length(); from = to, to += m) {
+            long chunk = 0;
+            for (int i = from; i < to; i++) chunk = chunk * base + characterDigit(s.charAt(i), base);
+            field.fromLong(chunk, r, 2);
+            field.mul(r, 0, r, 1, r, 0);
+            field.add(r, 0, r, 2, r, 0);
+        }
+        return r;
+    }
+
+    static int characterDigit(char c, int base) {
+        int digit;
+        if (Character.isDigit(c)) digit = c - '0';
+        else if (Character.isLetter(c)) digit = Character.toLowerCase(c) - 'a' + 10;
+        else throw new IllegalArgumentException("Invalid digit in base string");
+        if (digit >= base) throw new IllegalArgumentException("Digit exceeds base");
+        return digit;
+    }
+
+    static String digits(int base, int n) {
+        Random random = new Random(base * 31L + n);
+        StringBuilder sb = new StringBuilder(n);
+        sb.append(Character.forDigit(1 + random.nextInt(base - 1), base));
+        for (int i = 1; i < n; i++) sb.append(Character.forDigit(random.nextInt(base), base));
+        return sb.toString();
+    }
+
+    // Warm-up runs, then the best of ROUNDS.
+    static void report(String name, Runnable body) {
+        for (int i = 0; i < ROUNDS; i++) body.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("    %-20s %12.3f ms%n", name, best / 1e6);
+    }
+}
@@ -0,0 +1,205 @@
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Parses digit strings in bases 2 to 36 a chunk at a time. A chunk is the longest run of digits
+// whose value fits in a long, base^m < 2^63 (m = 18 for base 10, 62 for base 2, 12 for base 36),
+// so a field element costs one modular multiply-add per chunk, r = r * base^m + chunk, instead of
+// one per digit. The leading chunk takes the remainder of the length, which keeps every later
+// chunk full and the multiplier fixed. Reads the characters in place from a CharSequence, or from
+// ASCII bytes through ascii(ByteBuffer).
+//
+// Exact values longer than DIVIDE_THRESHOLD digits are split instead: the chunked loop multiplies
+// the whole accumulated value per chunk, which is quadratic in the digit count. The split form is
+// high * base^L + low with L = m * 2^i digits, so the multipliers are the repeated squares of
+// base^m and every product is a balanced one that BigInteger runs through Karatsuba or Toom-Cook.
+public class RadixParser {
+    static final int DIVIDE_THRESHOLD = Integer.getInteger("shamir.radixDivideThreshold", 4096);
+
+    static final int[] CHUNK_DIGITS = new int[37];
+    static final long[] CHUNK_POWER = new long[37];
+
+    // ASCII digit values, 0-9 then a-z and A-Z as 10-35; INVALID everywhere else.
+    static final byte INVALID = 99;
+    static final byte[] DIGITS = new byte[256];
+
+    static {
+        Arrays.fill(DIGITS, INVALID);
+        for (int d = 0; d < 36; d++) {
+            DIGITS[Character.forDigit(d, 36)] = (byte) d;
+            DIGITS[Character.toUpperCase(Character.forDigit(d, 36))] = (byte) d;
+        }
+        for (int base = 2; base <= 36; base++) {
+            int m = 0;
+            long power = 1;
+            while (power <= Long.MAX_VALUE / base) {
+                power *= base;
+                m++;
+            }
+            CHUNK_DIGITS[base] = m;
+            CHUNK_POWER[base] = power;
+        }
+    }
+
+    // r[ri] = the value of s in the given base, reduced into the field.
+    static void parse(CharSequence s, int base, Field field, long[] r, int ri) {
+        checkBase(base);
+        int len = s.length();
+        int m = CHUNK_DIGITS[base];
+        long[] scratch = field.newElements(2);
+        field.fromLong(CHUNK_POWER[base], scratch, 0);
+        int first = leadingChunk(len, m);
+        field.fromLong(chunk(s, 0, first, base), r, ri);
+        for (int i = first; i < len; i += m) {
+            field.fromLong(chunk(s, i, i + m, base), scratch, 1);
+            field.mul(r, ri, scratch, 0, r, ri);
+            field.add(r, ri, scratch, 1, r, ri);
+        }
+    }
+
+    // The exact value of s as little-endian 64-bit limbs, at least one, with no zero limbs above
+    // the most significant nonzero one.
+    static long[] parseExact(CharSequence s, int base) {
+        checkBase(base);
+        int len = s.length();
+        if (len <= divideThreshold(base)) return parseLinear(s, 0, len, base);
+        return limbs(divide(s, 0, len, base, powers(base, len)));
+    }
+
+    // parseExact over s[from..to) by the chunked loop alone.
+    static long[] parseLinear(CharSequence s, int from, int to, int base) {
+        int m = CHUNK_DIGITS[base];
+        long multiplier = CHUNK_POWER[base];
+
+        // ceil(log2(base)) bits per digit bounds the length from above.
+        int bits = 32 - Integer.numberOfLeadingZeros(base - 1);
+        long[] r = new long[(int) ((long) (to - from) * bits / 64) + 1];
+        int first = from + leadingChunk(to - from, m);
+        r[0] = chunk(s, from, first, base);
+        int used = 1;
+        for (int i = first; i < to; i += m) {
+            used = multiplyAdd(r, used, multiplier, chunk(s, i, i + m, base));
+        }
+        while (used > 1 && r[used - 1] == 0) used--;
+        return used == r.length ? r : Arrays.copyOf(r, used);
+    }
+
+    // powers[i] = base^(m * 2^i) for every m * 2^i below len.
+    private static BigInteger[] powers(int base, int len) {
+        int m = CHUNK_DIGITS[base];
+        int count = 1;
+        while ((long) m << count < len) count++;
+        BigInteger[] powers = new BigInteger[count];
+        powers[0] = BigInteger.valueOf(CHUNK_POWER[base]);
+        for (int i = 1; i < count; i++) powers[i] = powers[i - 1].multiply(powers[i - 1]);
+        return powers;
+    }
+
+    // The value of s[from..to). The low part is the largest m * 2^i digits short of the whole,
+    // so it is at least half and the high part recurses on smaller powers.
+    private static BigInteger divide(CharSequence s, int from, int to, int base, BigInteger[] powers) {
+        int len = to - from;
+        if (len <= divideThreshold(base)) {
+            long[] r = parseLinear(s, from, to, base);
+            return Fields.fromLimbs(r, 0, r.length);
+        }
+        int i = 31 - Integer.numberOfLeadingZeros((len - 1) / CHUNK_DIGITS[base]);
+        int split = to - (CHUNK_DIGITS[base] << i);
+        return divide(s, from, split, base, powers).multiply(powers[i]).add(divide(s, split, to, base, powers));
+    }
+
+    // DIVIDE_THRESHOLD, but at least two chunks: a split needs a low part of m * 2^i digits
+    // with i >= 0 and a nonempty high part.
+    private static int divideThreshold(int base) {
+        return Math.max(DIVIDE_THRESHOLD, 2 * CHUNK_DIGITS[base]);
+    }
+
+    // Little-endian limbs of a non-negative value in one pass over its bytes; Fields.toLimbs
+    // shifts the whole value once per limb.
+    private static long[] limbs(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        long[] r = new long[Math.max(1, (value.bitLength() + 63) / 64)];
+        for (int i = 0; i < bytes.length; i++) {
+            int bit = 8 * (bytes.length - 1 - i);
+            if (bit / 64 < r.length) r[bit / 64] |= (bytes[i] & 0xFFL) << (bit % 64);
+        }
+        return r;
+    }
+
+    // r[0..used) = r * multiplier + addend, unsigned; returns the new number of limbs.
+    private static int multiplyAdd(long[] r, int used, long multiplier, long addend) {
+        long carry = addend;
+        for (int i = 0; i < used; i++) {
+            long lo = r[i] * multiplier;
+            long hi = LimbField.unsignedMultiplyHigh(r[i], multiplier);
+            lo += carry;
+            if (Long.compareUnsigned(lo, carry) < 0) hi++;
+            r[i] = lo;
+            carry = hi;
+        }
+        if (carry != 0) r[used++] = carry;
+        return used;
+    }
+
+    private static int leadingChunk(int len, int m) {
+        int first = len % m;
+        return first == 0 ? Math.min(m, len) : first;
+    }
+
+    // The value of the digits s[from..to), at most CHUNK_DIGITS[base] of them. The INVALID
+    // sentinel is above every base and stands in for characters past the table too, so after the
+    // lookup one well-predicted compare per digit rejects bad input.
+    private static long chunk(CharSequence s, int from, int to, int base) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : INVALID;
+            if (digit >= base) {
+                throw new IllegalArgumentException(digit == INVALID ? "Invalid digit in base string" : "Digit exceeds base");
+            }
+            value = value * base + digit;
+        }
+        return value;
+    }
+
+    static void checkBase(int base) {
+        if (base < 2 || base > 36) throw new IllegalArgumentException("Base must be between 2 and 36");
+    }
+
+    // The remaining bytes of b as ASCII characters, without copying; b's position is not moved.
+    static CharSequence ascii(ByteBuffer b) {
+        return new AsciiView(b, b.position(), b.remaining());
+    }
+
+    private static final class AsciiView implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiView(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiView(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuilder(length).append(this).toString();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Long-running reconstruction over loopback HTTP, so one warm JVM (compiled field arithmetic,
+// parsed fields, the shared Lagrange cache) serves every request instead of each job paying
+// for JVM startup in the interpreter. POST /reconstruct takes share sets in the --batch input
+// formats and answers with one --batch result line per set; GET /stats reports the Lagrange
+// cache.
+//
+// Every connection gets its own thread for reading requests and writing responses, virtual
+// where the runtime has them (Java 21+; looked up reflectively so the sources still build on
+// 17, which falls back to a cached pool of platform threads). Base conversion and
+// reconstruction are handed to a fixed compute pool, one thread per core by default, whose
+// threads keep their own fields: thousands of clients trickling bytes in only hold cheap
+// connection threads, never the cores. The HTTP/1.1 handling is a small loop over plain
+// sockets because com.sun.net.httpserver reads request bodies inside synchronized methods,
+// which pins a virtual thread to its carrier for as long as the client takes to send.
+public class ReconstructionServer {
+    static final int BACKLOG = 4096;
+    static final int READ_BUFFER = 4096;
+    static final int MAX_LINE = 8192;
+    static final int MAX_BODY = 64 << 20;
+    static final int IDLE_TIMEOUT_MILLIS = 60_000;
+
+    private final ServerSocket socket;
+    private final ExecutorService connections;
+    private final ExecutorService compute;
+    private final List<String> flags;
+    private final ThreadLocal<Map<String, Field>> fields = ThreadLocal.withInitial(HashMap::new);
+
+    ReconstructionServer(int port, int threads, List<String> flags) throws IOException {
+        this(port, threads, flags, connectionExecutor());
+    }
+
+    ReconstructionServer(int port, int threads, List<String> flags, ExecutorService connections) throws IOException {
+        this.flags = flags;
+        this.connections = connections;
+        compute = Executors.newFixedThreadPool(threads);
+        socket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when available.
+    static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    static boolean virtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    void start() {
+        new Thread(this::accept, "reconstruction-accept").start();
+    }
+
+    void stop() throws IOException {
+        socket.close();
+        connections.shutdownNow();
+        compute.shutdown();
+    }
+
+    int port() {
+        return socket.getLocalPort();
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                Socket connection = socket.accept();
+                connections.execute(() -> serve(connection));
+            }
+        } catch (IOException e) {
+            // stop() closed the server socket.
+        }
+    }
+
+    // One keep-alive connection: requests with a Content-Length body (no chunked encoding),
+    // answered in order.
+    private void serve(Socket connection) {
+        try (connection) {
+            connection.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            InputStream in = new BufferedInputStream(connection.getInputStream(), READ_BUFFER);
+            OutputStream out = connection.getOutputStream();
+            for (String requestLine; (requestLine = readLine(in)) != null; ) {
+                String[] request = requestLine.split(" ");
+                if (request.length != 3 || !request[2].startsWith("HTTP/1.")) {
+                    respond(out, 400, error("Malformed request line"), true);
+                    return;
+                }
+                boolean close = request[2].equals("HTTP/1.0");
+                long length = 0;
+                boolean expectContinue = false;
+                for (String header; !(header = readLine(in)).isEmpty(); ) {
+                    int colon = header.indexOf(':');
+                    if (colon < 0) continue;
+                    String name = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                    String value = header.substring(colon + 1).trim();
+                    if (name.equals("content-length")) length = Long.parseLong(value);
+                    else if (name.equals("connection")) close = value.equalsIgnoreCase("close");
+                    else if (name.equals("expect")) expectContinue = value.equalsIgnoreCase("100-continue");
+                    else if (name.equals("transfer-encoding")) length = -1;
+                }
+                if (length < 0 || length > MAX_BODY) {
+                    respond(out, length < 0 ? 411 : 413, error("Send a Content-Length of at most " + MAX_BODY), true);
+                    return;
+                }
+                if (expectContinue) {
+                    out.write("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+                byte[] body = in.readNBytes((int) length);
+                if (body.length < length) return;
+
+                String path = request[1];
+                if (path.equals("/reconstruct")) {
+                    if (request[0].equals("POST")) reconstruct(out, body, close);
+                    else respond(out, 405, error("Use POST"), close);
+                } else if (path.equals("/stats")) {
+                    respond(out, 200, stats(), close);
+                } else {
+                    respond(out, 404, error("Not found"), close);
+                }
+                if (close) return;
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client went away, timed out or sent something unparseable; drop the connection.
+        }
+    }
+
+    private void reconstruct(OutputStream out, byte[] body, boolean close) throws IOException {
+        List<BatchPipeline.RawSet> sets = new ArrayList<>();
+        try (ShareReader reader = new ShareReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), READ_BUFFER)) {
+            for (BatchPipeline.RawSet set; (set = BatchPipeline.readSet(reader, sets.size(), null)) != null; ) sets.add(set);
+        } catch (IOException | IllegalArgumentException e) {
+            respond(out, 400, error(String.valueOf(e.getMessage())), close);
+            return;
+        }
+
+        String result;
+        try {
+            result = compute.submit(() -> recoverAll(sets)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(out, 503, error("Interrupted"), true);
+            return;
+        } catch (ExecutionException e) {
+            respond(out, 500, error(String.valueOf(e.getCause())), close);
+            return;
+        }
+        respond(out, 200, result, close);
+    }
+
+    // Runs on a compute thread, with that thread's fields.
+    private String recoverAll(List<BatchPipeline.RawSet> sets) {
+        Map<String, Field> own = fields.get();
+        StringBuilder out = new StringBuilder();
+        for (BatchPipeline.RawSet set : sets) {
+            BatchPipeline.Job job = BatchPipeline.convert(set, own, flags);
+            out.append(BatchPipeline.reconstruct(job, job.field, flags)).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String stats() {
+        LagrangeCache cache = LagrangeCache.SHARED;
+        return "{\"cacheHits\":" + cache.hits() + ",\"cacheMisses\":" + cache.misses()
+                + ",\"cacheEvictions\":" + cache.evictions() + ",\"cacheSize\":" + cache.size() + "}\n";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + BatchPipeline.quote(message) + "}\n";
+    }
+
+    private static void respond(OutputStream out, int status, String body, boolean close) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " " + reason(status) + "\r\nContent-Type: application/x-ndjson\r\n"
+                + "Content-Length: " + bytes.length + "\r\n" + (close ? "Connection: close\r\n" : "") + "\r\n";
+        // One write, so Nagle's algorithm never holds back the body waiting on a delayed ACK.
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] response = Arrays.copyOf(headBytes, headBytes.length + bytes.length);
+        System.arraycopy(bytes, 0, response, headBytes.length, bytes.length);
+        out.write(response);
+        out.flush();
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 411: return "Length Required";
+            case 413: return "Payload Too Large";
+            case 503: return "Service Unavailable";
+            default: return "Internal Server Error";
+        }
+    }
+
+    // A CRLF- or LF-terminated ASCII line without its terminator, or null at end of stream
+    // before any byte.
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int c; (c = in.read()) != '\n'; ) {
+            if (c < 0) {
+                if (line.length() == 0) return null;
+                throw new IOException("Connection closed mid-line");
+            }
+            if (line.length() == MAX_LINE) throw new IOException("Line too long");
+            line.append((char) c);
+        }
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') line.setLength(end - 1);
+        return line.toString();
+    }
+
+    // CLI: --serve=<port> (0 picks a free one) with --threads=<n> compute threads, by default
+    // one per core. Runs until the process is stopped.
+    static void run(List<String> flags) throws IOException {
+        if (flags.contains("--gf256")) throw new IllegalArgumentException("Server mode does not support --gf256");
+        String threads = PolynomialSolver.option(flags, "--threads=");
+        ReconstructionServer server = new ReconstructionServer(Integer.parseInt(PolynomialSolver.option(flags, "--serve=")),
+                threads == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads), flags);
+        server.start();
+        System.err.println("Listening on http://127.0.0.1:" + server.port() + "/reconstruct"
+                + (virtualThreads() ? "" : " (no virtual threads before Java 21; connections use platform threads)"));
+    }
+}
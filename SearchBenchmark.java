@@ -0,0 +1,108 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+
+// Time and heap allocation per candidate subset in the sequential search loop, with one
+// corrupt share so that every subset is rejected. "fresh" builds a new LagrangeInterpolator
+// per subset and "reused" resets one instance, both checking every share in input order;
+// "validator" is the search's SubsetValidator, which skips the subset's members and tries the
+// share that rejected the last subset first. Allocation comes from
+// com.sun.management.ThreadMXBean, standing in for JMH's -prof gc (the sources live in the
+// default package, as in FieldBenchmark).
+//
+//   java SearchBenchmark [n] [k]
+public class SearchBenchmark {
+    static final int ROUNDS = 5;
+
+    static volatile boolean sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.printf("n = %d, k = %d, %d subsets%n", n, k, new SubsetCursor(n, k).count());
+
+        for (String spec : new String[]{String.valueOf(PolynomialSolver.PRIME), "m61", "p256"}) {
+            Field field = Fields.parse(spec);
+            ShareSet shares = corruptShares(field, n, k);
+            System.out.println("p = " + spec);
+            report("fresh", () -> scan(field, shares, k, Mode.FRESH));
+            report("reused", () -> scan(field, shares, k, Mode.REUSED));
+            report("validator", () -> scan(field, shares, k, Mode.VALIDATOR));
+        }
+    }
+
+    // Shares of a random polynomial of degree k - 1, with the last share off by one.
+    static ShareSet corruptShares(Field field, int n, int k) {
+        Random random = new Random(n * 31 + k);
+        long[] coefficients = field.newElements(k);
+        for (int i = 0; i < k; i++) {
+            field.fromBigInteger(new BigInteger(field.modulus().bitLength(), random), coefficients, i);
+        }
+        ShareSet shares = new ShareSet(field, n);
+        for (int x = 1; x <= n; x++) {
+            int i = shares.add();
+            field.fromLong(x, shares.xs(), i);
+            BerlekampWelch.evaluate(field, coefficients, k, shares.xs(), i, shares.ys(), i);
+        }
+        long[] one = field.newElements(1);
+        field.fromLong(1, one, 0);
+        field.add(shares.ys(), n - 1, one, 0, shares.ys(), n - 1);
+        return shares;
+    }
+
+    enum Mode { FRESH, REUSED, VALIDATOR }
+
+    static long scan(Field field, ShareSet shares, int k, Mode mode) {
+        SubsetCursor cursor = new SubsetCursor(shares.size(), k);
+        LagrangeInterpolator interpolator = new LagrangeInterpolator(field, k);
+        SubsetValidator validator = new SubsetValidator(shares);
+        long subsets = 0;
+        boolean found = false;
+        while (cursor.next()) {
+            switch (mode) {
+                case FRESH:
+                    found |= checkAll(new LagrangeInterpolator(field, shares, cursor.indices()), shares);
+                    break;
+                case REUSED:
+                    interpolator.reset(shares, cursor.indices());
+                    found |= checkAll(interpolator, shares);
+                    break;
+                default:
+                    interpolator.reset(shares, cursor.indices());
+                    found |= validator.isConsistent(interpolator, cursor.indices());
+                    break;
+            }
+            subsets++;
+        }
+        sink = found;
+        return subsets;
+    }
+
+    // The check before SubsetValidator: every share, members included, in input order.
+    static boolean checkAll(LagrangeInterpolator interpolator, ShareSet shares) {
+        for (int i = 0; i < shares.size(); i++) {
+            if (!interpolator.matches(shares.xs(), i, shares.ys(), i)) return false;
+        }
+        return true;
+    }
+
+    interface Scan {
+        long run();
+    }
+
+    static void report(String name, Scan body) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        body.run();
+        long best = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        long subsets = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            subsets = body.run();
+            best = Math.min(best, System.nanoTime() - start);
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - allocated);
+        }
+        System.out.printf("  %-10s %10.1f ns/subset %10.1f B/subset%n", name, (double) best / subsets, (double) bytes / subsets);
+    }
+}
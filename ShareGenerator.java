@@ -0,0 +1,244 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.DrbgParameters;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+// Splits secrets into n shares with threshold k: f(x) = secret + c_1 x + ... + c_{k-1} x^{k-1}
+// with fresh random coefficients, and share i is (i + 1, f(i + 1)). An instance keeps its
+// coefficient, x-value and random-byte buffers across calls, so splitting a stream of secrets
+// with Horner allocates nothing per secret; like the fields, it must not be shared between
+// threads. From MULTIPOINT_THRESHOLD coefficients on, the shares come from a subproduct-tree
+// MultipointEvaluator over the fixed x-values instead of n separate Horner evaluations.
+public class ShareGenerator {
+    static final int MULTIPOINT_THRESHOLD = 1024;
+
+    private final Field field;
+    private final SecureRandom random;
+    private final int k;
+    private final int n;
+    private final long[] xs;
+    private final long[] coefficients;
+    private final long[] bound;
+    private final long topMask;
+    private final byte[] randomBytes;
+    private final ByteBuffer randomLongs;
+    private final MultipointEvaluator evaluator;
+
+    ShareGenerator(Field field, int k, int n, SecureRandom random) {
+        if (k < 1 || k > n) throw new IllegalArgumentException("Need 1 <= k <= n");
+        if (BigInteger.valueOf(n).compareTo(field.modulus()) >= 0) {
+            throw new IllegalArgumentException("n must be below the field modulus");
+        }
+        this.field = field;
+        this.random = random;
+        this.k = k;
+        this.n = n;
+        xs = field.newElements(n);
+        for (int i = 0; i < n; i++) field.fromLong(i + 1, xs, i);
+        coefficients = field.newElements(k);
+
+        int limbs = field.limbs();
+        bound = Fields.toLimbs(field.modulus(), limbs);
+        int topBits = field.modulus().bitLength() - 64 * (limbs - 1);
+        topMask = topBits == 64 ? -1L : (1L << topBits) - 1;
+        randomBytes = new byte[(k - 1) * limbs * 8];
+        randomLongs = ByteBuffer.wrap(randomBytes).order(ByteOrder.LITTLE_ENDIAN);
+        evaluator = k >= MULTIPOINT_THRESHOLD ? new MultipointEvaluator(field, xs, n) : null;
+    }
+
+    int k() {
+        return k;
+    }
+
+    int n() {
+        return n;
+    }
+
+    // Writes the n share values of secret[si] to ys[yi..yi+n); share i has x = i + 1.
+    void split(long[] secret, int si, long[] ys, int yi) {
+        field.copy(secret, si, coefficients, 0);
+        random.nextBytes(randomBytes);
+        for (int j = 1; j < k; j++) randomElement(j);
+        if (evaluator != null) {
+            evaluator.evaluate(coefficients, k, ys, yi);
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            BerlekampWelch.evaluate(field, coefficients, k, xs, i, ys, yi + i);
+        }
+    }
+
+    // Uniform in [0, p). Every field stores a residue below p in little-endian limbs (Montgomery
+    // form only permutes the residues), so rejection sampling on raw limbs is enough. Draws come
+    // from the bytes fetched for this split; rejected draws are redrawn one limb at a time.
+    private void randomElement(int j) {
+        int limbs = field.limbs();
+        int off = j * limbs;
+        for (int i = 0; i < limbs; i++) coefficients[off + i] = randomLongs.getLong(((j - 1) * limbs + i) * 8);
+        coefficients[off + limbs - 1] &= topMask;
+        while (!belowModulus(off)) {
+            for (int i = 0; i < limbs; i++) coefficients[off + i] = random.nextLong();
+            coefficients[off + limbs - 1] &= topMask;
+        }
+    }
+
+    private boolean belowModulus(int off) {
+        for (int i = bound.length - 1; i >= 0; i--) {
+            int c = Long.compareUnsigned(coefficients[off + i], bound[i]);
+            if (c != 0) return c < 0;
+        }
+        return false;
+    }
+
+    // "default" (the platform SecureRandom), "strong", "drbg" (SP 800-90A, 256-bit strength),
+    // or any SecureRandom algorithm name.
+    static SecureRandom random(String spec) throws GeneralSecurityException {
+        switch (spec.toLowerCase(Locale.ROOT)) {
+            case "default": return new SecureRandom();
+            case "strong": return SecureRandom.getInstanceStrong();
+            case "drbg": return SecureRandom.getInstance("DRBG",
+                    DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null));
+            default: return SecureRandom.getInstance(spec);
+        }
+    }
+
+    // CLI: --split=<secret> splits one decimal secret (hex bytes with --gf256), --split-batch=<file>
+    // splits every line of a file. Writes one share set per line in the input.json shape, so the
+    // output of a batch split can be fed straight back to --batch.
+    static void run(List<String> flags) throws Exception {
+        String n = PolynomialSolver.option(flags, "--n=");
+        String k = PolynomialSolver.option(flags, "--k=");
+        if (n == null || k == null) throw new IllegalArgumentException("Splitting needs --n=<shares> and --k=<threshold>");
+        String base = PolynomialSolver.option(flags, "--base=");
+        String algorithm = PolynomialSolver.option(flags, "--random=");
+        String jobPrime = PolynomialSolver.option(flags, "--prime=");
+        SecureRandom random = random(algorithm == null ? "default" : algorithm);
+
+        SecretWriter writer;
+        if (flags.contains("--gf256")) {
+            if (jobPrime != null || (base != null && !base.equals("16"))) {
+                throw new IllegalArgumentException("--gf256 shares are base-16 bytes; drop --prime and --base");
+            }
+            writer = new ByteShareWriter(Integer.parseInt(k), Integer.parseInt(n), random);
+        } else {
+            Field field = PolynomialSolver.selectField(flags, null);
+            ShareGenerator generator = new ShareGenerator(field, Integer.parseInt(k), Integer.parseInt(n), random);
+            writer = new ShareWriter(field, generator, base == null ? 10 : Integer.parseInt(base), jobPrime);
+        }
+
+        String output = PolynomialSolver.option(flags, "--out=");
+        Writer out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8);
+        try {
+            String single = PolynomialSolver.option(flags, "--split=");
+            if (single != null) {
+                writer.write(single, out);
+            } else {
+                try (BufferedReader in = Files.newBufferedReader(
+                        Paths.get(PolynomialSolver.option(flags, "--split-batch=")), StandardCharsets.UTF_8)) {
+                    for (String line; (line = in.readLine()) != null; ) {
+                        if (!line.isBlank()) writer.write(line.strip(), out);
+                    }
+                }
+            }
+        } finally {
+            if (output == null) out.flush();
+            else out.close();
+        }
+    }
+
+    interface SecretWriter {
+        void write(String secret, Writer out) throws IOException;
+    }
+
+    // Formats share sets as {"keys": {...}, "1": {"base": ..., "value": ...}, ...} lines.
+    static final class ShareWriter implements SecretWriter {
+        private final Field field;
+        private final ShareGenerator generator;
+        private final int base;
+        private final String header;
+        private final long[] secret;
+        private final long[] ys;
+        private final StringBuilder line = new StringBuilder();
+
+        ShareWriter(Field field, ShareGenerator generator, int base, String prime) {
+            RadixParser.checkBase(base);
+            this.field = field;
+            this.generator = generator;
+            this.base = base;
+            header = "{\"keys\":{\"n\":" + generator.n() + ",\"k\":" + generator.k()
+                    + (prime == null ? "" : ",\"prime\":" + BatchPipeline.quote(prime)) + "}";
+            secret = field.newElements(1);
+            ys = field.newElements(generator.n());
+        }
+
+        @Override
+        public void write(String decimalSecret, Writer out) throws IOException {
+            BigInteger value = new BigInteger(decimalSecret);
+            if (value.signum() < 0 || value.compareTo(field.modulus()) >= 0) {
+                throw new IllegalArgumentException("Secret does not fit in the field: " + decimalSecret);
+            }
+            field.fromBigInteger(value, secret, 0);
+            generator.split(secret, 0, ys, 0);
+
+            line.setLength(0);
+            line.append(header);
+            for (int i = 0; i < generator.n(); i++) {
+                line.append(",\"").append(i + 1).append("\":{\"base\":\"").append(base)
+                        .append("\",\"value\":\"").append(field.toBigInteger(ys, i).toString(base)).append("\"}");
+            }
+            out.append(line).append("}\n");
+        }
+    }
+
+    // --gf256: splits hex byte strings with ByteShamir into the same line format, every value a
+    // base-16 string of the secret's length, as --gf256 reconstruction reads them.
+    static final class ByteShareWriter implements SecretWriter {
+        private final int k;
+        private final int n;
+        private final SecureRandom random;
+        private final String header;
+        private final StringBuilder line = new StringBuilder();
+
+        ByteShareWriter(int k, int n, SecureRandom random) {
+            if (k < 1 || k > n || n > 255) throw new IllegalArgumentException("Need 1 <= k <= n <= 255");
+            this.k = k;
+            this.n = n;
+            this.random = random;
+            header = "{\"keys\":{\"n\":" + n + ",\"k\":" + k + "}";
+        }
+
+        @Override
+        public void write(String hexSecret, Writer out) throws IOException {
+            byte[] secret;
+            try {
+                secret = HexFormat.of().parseHex(hexSecret);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("--gf256 secrets are hex byte strings: " + hexSecret);
+            }
+            byte[][] shares = ByteShamir.split(secret, n, k, random);
+
+            line.setLength(0);
+            line.append(header);
+            for (int i = 0; i < n; i++) {
+                line.append(",\"").append(i + 1).append("\":{\"base\":\"16\",\"value\":\"")
+                        .append(HexFormat.of().formatHex(shares[i])).append("\"}");
+            }
+            out.append(line).append("}\n");
+        }
+    }
+}
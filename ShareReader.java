@@ -0,0 +1,399 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Pull parser for share documents. The input is a sequence of share-set objects, either as
+// top-level values (one document, or JSON Lines) or inside top-level arrays:
+//
+//   {"keys": {"n": 4, "k": 3, "prime": "p256"}, "1": {"base": "10", "value": "4"}, ...}
+//
+// next() advances to the next event. Memory is bounded by the largest single token: base and
+// value are decoded straight from the character buffer, and value() is a view over a reused
+// buffer that stays valid until the following call to next().
+//
+// Syntax errors are thrown as MalformedException; skipMalformed() then discards the rest of the
+// broken set so that reading can go on with the next line.
+public class ShareReader implements Closeable {
+    enum Event { SET_START, KEYS, SHARE, SET_END, END }
+
+    static final class MalformedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedException(String message) {
+            super(message);
+        }
+    }
+
+    private final Reader in;
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private int arrayDepth;
+    private boolean inSet;
+    // Offset of the first non-whitespace character on the current line, once reached.
+    private long lineStart;
+
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder scratch = new StringBuilder();
+    private char[] valueBuf = new char[256];
+    private int valueLen;
+    private final CharSequence value = new ValueView();
+
+    private long x;
+    private int base;
+    private int k;
+    private int n;
+    private String prime;
+
+    ShareReader(Reader in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    // A smaller buffer for many concurrent readers of short documents.
+    ShareReader(Reader in, int bufferSize) {
+        this.in = in;
+        buf = new char[bufferSize];
+    }
+
+    Event next() throws IOException {
+        while (true) {
+            int c = skipWhitespace();
+            if (!inSet) {
+                if (c < 0) {
+                    if (arrayDepth != 0) throw error("Unterminated array");
+                    return Event.END;
+                }
+                pos++;
+                if (c == '[') arrayDepth++;
+                else if (c == ']' && arrayDepth > 0) arrayDepth--;
+                else if (c == ',' && arrayDepth > 0) continue;
+                else if (c == '{') {
+                    inSet = true;
+                    k = n = 0;
+                    prime = null;
+                    return Event.SET_START;
+                } else throw error("Expected a share-set object");
+                continue;
+            }
+
+            if (c < 0) throw error("Unterminated share-set object");
+            if (c != ',' && c != '}' && c != '"') throw error("Expected a member name");
+            pos++;
+            if (c == ',') continue;
+            if (c == '}') {
+                inSet = false;
+                return Event.SET_END;
+            }
+            readString(key);
+            expect(':');
+            if (contentEquals(key, "keys")) {
+                readKeys();
+                return Event.KEYS;
+            }
+            readShare();
+            return Event.SHARE;
+        }
+    }
+
+    long x() {
+        return x;
+    }
+
+    int base() {
+        return base;
+    }
+
+    CharSequence value() {
+        return value;
+    }
+
+    // A copy of value() that outlives the next event.
+    char[] valueChars() {
+        return Arrays.copyOf(valueBuf, valueLen);
+    }
+
+    int k() {
+        return k;
+    }
+
+    int n() {
+        return n;
+    }
+
+    // The job's "prime" entry, or null if the keys object has none.
+    String prime() {
+        return prime;
+    }
+
+    // Recovers from a MalformedException: drops the set being read and skips to the next line.
+    // A set that broke off at the start of a line (a missing closing brace, say) leaves that
+    // line alone, since it most likely holds the next set.
+    void skipMalformed() throws IOException {
+        boolean nextLine = inSet && consumed + pos == lineStart;
+        inSet = false;
+        if (!nextLine) {
+            for (int c; (c = read()) >= 0 && c != '\n'; ) { }
+        }
+        if (peek() < 0) arrayDepth = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readKeys() throws IOException {
+        expect('{');
+        boolean hasK = false;
+        if (!peekIs('}')) {
+            do {
+                expect('"');
+                readString(key);
+                expect(':');
+                if (contentEquals(key, "k")) {
+                    k = readInt();
+                    hasK = true;
+                } else if (contentEquals(key, "n")) n = readInt();
+                else if (contentEquals(key, "prime")) {
+                    readScalar(scratch);
+                    prime = scratch.toString();
+                } else skipValue();
+            } while (nextMember());
+        }
+        if (!hasK) throw error("Missing \"k\" in keys");
+        if (k < 1) throw error("\"k\" in keys must be at least 1");
+    }
+
+    private void readShare() throws IOException {
+        x = parseLong(key);
+        base = -1;
+        valueLen = -1;
+        expect('{');
+        if (!peekIs('}')) {
+            do {
+                expect('"');
+                readString(key);
+                expect(':');
+                if (contentEquals(key, "base")) base = readInt();
+                else if (contentEquals(key, "value")) readValue();
+                else skipValue();
+            } while (nextMember());
+        }
+        if (base < 0 || valueLen < 0) throw error("Share " + x + " needs both base and value");
+    }
+
+    // Consumes ',' (returns true) or the closing '}' (returns false).
+    private boolean nextMember() throws IOException {
+        int c = skipWhitespace();
+        if (c != ',' && c != '}') throw error("Expected ',' or '}'");
+        pos++;
+        return c == ',';
+    }
+
+    private boolean peekIs(char expected) throws IOException {
+        if (skipWhitespace() != expected) return false;
+        pos++;
+        return true;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (skipWhitespace() != expected) throw error("Expected '" + expected + "'");
+        pos++;
+    }
+
+    private int readInt() throws IOException {
+        readScalar(scratch);
+        long v = parseLong(scratch);
+        if (v > Integer.MAX_VALUE) throw error("Integer out of range: " + scratch);
+        return (int) v;
+    }
+
+    // A string or bare number/literal, decoded into out.
+    private void readScalar(StringBuilder out) throws IOException {
+        int c = skipWhitespace();
+        if (c == '"') {
+            pos++;
+            readString(out);
+            return;
+        }
+        out.setLength(0);
+        while ((c = peek()) >= 0 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            out.append((char) c);
+            pos++;
+        }
+        if (out.length() == 0) throw error("Expected a value");
+    }
+
+    // Reads the value string into valueBuf; bare numbers are accepted as well.
+    private void readValue() throws IOException {
+        int c = skipWhitespace();
+        valueLen = 0;
+        if (c != '"') {
+            while ((c = peek()) >= 0 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+                appendValue((char) c);
+                pos++;
+            }
+            return;
+        }
+        pos++;
+        while (true) {
+            if (pos == limit && !fill()) throw error("Unterminated string");
+            // Copy the run of plain characters in one go.
+            int start = pos;
+            while (pos < limit && buf[pos] != '"' && buf[pos] != '\\') pos++;
+            ensureValueCapacity(valueLen + pos - start);
+            System.arraycopy(buf, start, valueBuf, valueLen, pos - start);
+            valueLen += pos - start;
+            if (pos == limit) continue;
+            if (buf[pos++] == '"') return;
+            appendValue(readEscape());
+        }
+    }
+
+    private void appendValue(char c) {
+        ensureValueCapacity(valueLen + 1);
+        valueBuf[valueLen++] = c;
+    }
+
+    private void ensureValueCapacity(int capacity) {
+        if (capacity > valueBuf.length) {
+            char[] grown = new char[Math.max(capacity, valueBuf.length * 2)];
+            System.arraycopy(valueBuf, 0, grown, 0, valueLen);
+            valueBuf = grown;
+        }
+    }
+
+    // Reads the rest of a string whose opening quote has been consumed.
+    private void readString(StringBuilder out) throws IOException {
+        out.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) throw error("Unterminated string");
+            char c = buf[pos++];
+            if (c == '"') return;
+            out.append(c == '\\' ? readEscape() : c);
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': case '\\': case '/': return (char) c;
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': {
+                int v = 0;
+                for (int i = 0; i < 4; i++) {
+                    int d = Character.digit(read(), 16);
+                    if (d < 0) throw error("Bad unicode escape");
+                    v = (v << 4) | d;
+                }
+                return (char) v;
+            }
+            default: throw error("Bad escape");
+        }
+    }
+
+    private void skipValue() throws IOException {
+        int c = skipWhitespace();
+        if (c == '"') {
+            pos++;
+            readString(scratch);
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = read();
+                if (c < 0) throw error("Unterminated value");
+                if (c == '"') readString(scratch);
+                else if (c == '{' || c == '[') depth++;
+                else if (c == '}' || c == ']') depth--;
+            } while (depth > 0);
+        } else {
+            readScalar(scratch);
+        }
+    }
+
+    private long parseLong(CharSequence s) throws IOException {
+        if (s.length() == 0 || s.length() > 18) throw error("Expected an integer, got \"" + s + "\"");
+        long v = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw error("Expected an integer, got \"" + s + "\"");
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static boolean contentEquals(StringBuilder sb, String s) {
+        if (sb.length() != s.length()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (sb.charAt(i) != s.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        boolean newline = false;
+        while ((c = peek()) == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            newline |= c == '\n';
+            pos++;
+        }
+        if (newline) lineStart = consumed + pos;
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    // Tokens never hold positions across a refill, so the buffer can simply be reloaded.
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = limit = 0;
+        int r = in.read(buf, 0, buf.length);
+        if (r <= 0) return false;
+        limit = r;
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new MalformedException(message + " at character " + (consumed + pos));
+    }
+
+    private class ValueView implements CharSequence {
+        @Override
+        public int length() {
+            return valueLen;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= valueLen) throw new IndexOutOfBoundsException(index);
+            return valueBuf[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(valueBuf, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(valueBuf, 0, valueLen);
+        }
+    }
+}
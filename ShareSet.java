@@ -0,0 +1,39 @@
+import java.util.Arrays;
+
+// Shares in struct-of-arrays form: the x-coordinates and the values are two parallel arrays of
+// field elements, so share i is element i of xs() and element i of ys(). Scans over a set are
+// linear reads of primitive memory, and a subset is an int[] of indices into the set.
+public class ShareSet {
+    private final int limbs;
+    private long[] xs;
+    private long[] ys;
+    private int size;
+
+    ShareSet(Field field, int capacity) {
+        limbs = field.limbs();
+        xs = new long[Math.max(1, capacity) * limbs];
+        ys = new long[Math.max(1, capacity) * limbs];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // The backing arrays; add() may replace them.
+    long[] xs() {
+        return xs;
+    }
+
+    long[] ys() {
+        return ys;
+    }
+
+    // Appends a share with zero coordinates and returns its index; fill it in through xs()/ys().
+    int add() {
+        if ((size + 1) * limbs > xs.length) {
+            xs = Arrays.copyOf(xs, xs.length * 2);
+            ys = Arrays.copyOf(ys, ys.length * 2);
+        }
+        return size++;
+    }
+}
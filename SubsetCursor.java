@@ -0,0 +1,126 @@
+// Enumerates the k-subsets of {0..n-1} in revolving-door order (Kreher & Stinson, Alg. 2.13).
+// Consecutive subsets differ by swapping a single element, and all state lives in one
+// int[] so stepping to the next subset allocates nothing.
+public class SubsetCursor {
+    private final int n;
+    private final int k;
+    private long[][] binomials;
+    private final int[] t;
+    private final int[] indices;
+    private boolean started;
+    private boolean done;
+
+    SubsetCursor(int n, int k) {
+        this(n, k, null);
+    }
+
+    // A cursor that ranks with a binomials(n, k) table shared by many cursors, such as the
+    // leaves of a parallel search. Without one, count() and seek() build the O(n * k) table on
+    // first use, so a plain enumeration stays in O(k) memory.
+    SubsetCursor(int n, int k, long[][] binomials) {
+        if (k < 0 || k > n) throw new IllegalArgumentException("Subset size out of range");
+        this.n = n;
+        this.k = k;
+        this.t = new int[k + 2];
+        this.indices = new int[k];
+        this.binomials = binomials;
+        reset();
+    }
+
+    // Pascal's triangle C(i, j) for i <= n + 1, j <= k, saturating at Long.MAX_VALUE.
+    static long[][] binomials(int n, int k) {
+        long[][] c = new long[n + 2][k + 1];
+        for (int i = 0; i <= n + 1; i++) {
+            c[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, k); j++) {
+                long sum = c[i - 1][j - 1] + c[i - 1][j];
+                c[i][j] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+        return c;
+    }
+
+    long count() {
+        return binomials()[n][k];
+    }
+
+    private long[][] binomials() {
+        if (binomials == null) binomials = binomials(n, k);
+        return binomials;
+    }
+
+    void reset() {
+        for (int i = 1; i <= k; i++) t[i] = i;
+        t[k + 1] = n + 1;
+        started = false;
+        done = false;
+    }
+
+    // Positions the cursor so that the next call to next() yields the subset with the given
+    // revolving-door rank (Kreher & Stinson, Alg. 2.12).
+    void seek(long rank) {
+        if (count() == Long.MAX_VALUE) throw new ArithmeticException("Too many subsets to rank");
+        if (rank < 0 || rank >= count()) throw new IllegalArgumentException("Rank out of range");
+        long[][] binomials = binomials();
+        long r = rank;
+        int x = n;
+        for (int i = k; i >= 1; i--) {
+            while (binomials[x][i] > r) x--;
+            t[i] = x + 1;
+            r = binomials[x + 1][i] - r - 1;
+        }
+        t[k + 1] = n + 1;
+        started = false;
+        done = false;
+    }
+
+    // The current subset as ascending 0-based indices. The array is reused between calls.
+    int[] indices() {
+        return indices;
+    }
+
+    boolean next() {
+        if (done) return false;
+        if (!started) {
+            started = true;
+        } else if (!advance()) {
+            done = true;
+            return false;
+        }
+        for (int i = 0; i < k; i++) indices[i] = t[i + 1] - 1;
+        return true;
+    }
+
+    private boolean advance() {
+        if (k == 0 || k == n) return false;
+        if (isLast()) return false;
+
+        int j = 1;
+        while (j <= k && t[j] == j) j++;
+
+        if (((k - j) & 1) != 0) {
+            if (j == 1) {
+                t[1]--;
+            } else {
+                t[j - 1] = j;
+                if (j > 2) t[j - 2] = j - 1;
+            }
+        } else if (t[j + 1] != t[j] + 1) {
+            t[j - 1] = t[j];
+            t[j]++;
+        } else {
+            t[j + 1] = t[j];
+            t[j] = j;
+        }
+        return true;
+    }
+
+    // The final subset in revolving-door order is {1, .., k-1, n}.
+    private boolean isLast() {
+        if (t[k] != n) return false;
+        for (int i = 1; i < k; i++) {
+            if (t[i] != i) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.Arrays;
+
+// Checks candidate subsets against the other shares. Subset members agree with their own
+// interpolant by construction and are skipped. The rest are tried in move-to-front order: the
+// share that rejected the previous subset goes first, since a corrupt share rejects every subset
+// that does not contain it. A rejected subset then costs only the evaluations made before the
+// first mismatch, usually one. Keeps per-search state, so every worker needs its own instance.
+public class SubsetValidator {
+    private final ShareSet shares;
+    private final int[] order;
+    private final int[] memberOf;
+    private int stamp;
+
+    SubsetValidator(ShareSet shares) {
+        this.shares = shares;
+        int n = shares.size();
+        order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        memberOf = new int[n];
+    }
+
+    // True if every share outside members lies on the interpolator's polynomial.
+    boolean isConsistent(LagrangeInterpolator interpolator, int[] members) {
+        // memberOf[i] == stamp marks the current members without clearing the array per subset.
+        if (++stamp == 0) {
+            Arrays.fill(memberOf, 0);
+            stamp = 1;
+        }
+        for (int member : members) memberOf[member] = stamp;
+
+        long[] xs = shares.xs();
+        long[] ys = shares.ys();
+        for (int pos = 0; pos < order.length; pos++) {
+            int i = order[pos];
+            if (memberOf[i] == stamp) continue;
+            if (!interpolator.matches(xs, i, ys, i)) {
+                System.arraycopy(order, 0, order, 1, pos);
+                order[0] = i;
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+import java.math.BigInteger;
+
+// GF(p) for p < 2^31, one long per element. Products fit in a signed long, so reduction is
+// a single %. For p up to INVERSE_TABLE_LIMIT (system property shamir.inverseTableLimit,
+// default 2^20) the first inversion builds a table of all inverses, after which inv is an
+// array load.
+public class WordField implements Field {
+    static final int MAX_BITS = 31;
+    static final int INVERSE_TABLE_LIMIT = Integer.getInteger("shamir.inverseTableLimit", 1 << 20);
+
+    private final long p;
+    private final BigInteger modulus;
+    private volatile int[] inverses;
+
+    WordField(long p) {
+        if (p < 2 || p >= (1L << MAX_BITS)) throw new IllegalArgumentException("Prime out of range for WordField");
+        this.p = p;
+        this.modulus = BigInteger.valueOf(p);
+    }
+
+    @Override
+    public BigInteger modulus() {
+        return modulus;
+    }
+
+    @Override
+    public int limbs() {
+        return 1;
+    }
+
+    @Override
+    public Field fork() {
+        return this;
+    }
+
+    @Override
+    public void fromBigInteger(BigInteger value, long[] r, int ri) {
+        r[ri] = value.mod(modulus).longValue();
+    }
+
+    @Override
+    public BigInteger toBigInteger(long[] a, int ai) {
+        return BigInteger.valueOf(a[ai]);
+    }
+
+    @Override
+    public void fromLong(long value, long[] r, int ri) {
+        r[ri] = Math.floorMod(value, p);
+    }
+
+    @Override
+    public void add(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long s = a[ai] + b[bi];
+        r[ri] = s >= p ? s - p : s;
+    }
+
+    @Override
+    public void sub(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        long d = a[ai] - b[bi];
+        r[ri] = d < 0 ? d + p : d;
+    }
+
+    @Override
+    public void mul(long[] a, int ai, long[] b, int bi, long[] r, int ri) {
+        r[ri] = (a[ai] * b[bi]) % p;
+    }
+
+    @Override
+    public void inv(long[] a, int ai, long[] r, int ri) {
+        if (p <= INVERSE_TABLE_LIMIT) {
+            int[] table = inverses;
+            if (table == null) inverses = table = inverseTable(p);
+            r[ri] = table[(int) a[ai]];
+            return;
+        }
+        r[ri] = modInverse(a[ai]);
+    }
+
+    // inv[i] = -(p / i) * inv[p mod i], from p = (p / i) * i + p mod i; O(p) and no divisions
+    // beyond the two per entry. inv[0] stays 0, matching modInverse(0). Building it twice in a
+    // race is harmless, so publication through the volatile field is enough.
+    static int[] inverseTable(long p) {
+        int[] inv = new int[(int) p];
+        if (p > 1) inv[1] = 1;
+        for (int i = 2; i < p; i++) {
+            inv[i] = (int) (p - (p / i) * inv[(int) (p % i)] % p);
+        }
+        return inv;
+    }
+
+    long modInverse(long a) {
+        long res = 1, e = p - 2;
+        a %= p;
+        while (e > 0) {
+            if ((e & 1) != 0) res = (res * a) % p;
+            a = (a * a) % p;
+            e >>= 1;
+        }
+        return res;
+    }
+}